@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import websocket.ConnectionManager;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out of a notification to everyone connected to a game. Sessions are
+ * stand-ins that hand the outgoing text to a Blackhole, so this measures
+ * the server's side of a broadcast and not the network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+    private static final int GAME_ID = 1;
+
+    @Param({"2", "16", "128"})
+    public int connections;
+
+    private ConnectionManager manager;
+    private ServerMessage notification;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        manager = new ConnectionManager();
+        for (int i = 0; i < connections; i++) {
+            manager.add("player" + i, session(blackhole), GAME_ID);
+        }
+        notification = new NotificationMessage(ServerMessage.ServerMessageType.NOTIFICATION, "player0 moved e2 to e4!");
+    }
+
+    @Benchmark
+    public void broadcast() throws IOException {
+        manager.broadcast("player0", notification, GAME_ID);
+    }
+
+    private static Session session(Blackhole blackhole) {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        blackhole.consume(args[0]);
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> true;
+                    case "getRemote" -> remote;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.MoveUndo;
+import chess.bitboard.Fen;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move validation and game-status checks that the server runs on every MAKE_MOVE.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    @Param({
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    })
+    public String fen;
+
+    private ChessGame game;
+    private ChessMove move;
+    private final MoveUndo undo = new MoveUndo();
+
+    // a short opening played through the validating makeMove
+    private static final ChessMove[] OPENING = {
+            move(2, 5, 4, 5), move(7, 5, 5, 5),
+            move(1, 7, 3, 6), move(8, 2, 6, 3),
+            move(1, 6, 4, 3), move(8, 6, 5, 3),
+            move(2, 3, 3, 3), move(8, 7, 6, 6)
+    };
+
+    @Setup
+    public void setup() {
+        game = Fen.parse(fen);
+        move = game.validMoves(firstPieceWithMoves()).iterator().next();
+    }
+
+    private ChessPosition firstPieceWithMoves() {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                var piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn() && !game.validMoves(position).isEmpty()) {
+                    return position;
+                }
+            }
+        }
+        throw new IllegalStateException("No legal moves in " + fen);
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+
+    @Benchmark
+    public void validMovesAllPieces(Blackhole blackhole) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                if (game.getBoard().getPiece(position) != null) {
+                    blackhole.consume(game.validMoves(position));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessGame.GameState gameState() {
+        return game.gameState(game, game.getTeamTurn());
+    }
+
+    @Benchmark
+    public MoveUndo makeUnmakeMove() {
+        game.makeMove(move, undo);
+        game.unmakeMove(undo);
+        return undo;
+    }
+
+    @Benchmark
+    public ChessGame makeMoveValidated() throws InvalidMoveException {
+        ChessGame opening = new ChessGame();
+        for (ChessMove openingMove : OPENING) {
+            opening.makeMove(openingMove);
+        }
+        return opening;
+    }
+}
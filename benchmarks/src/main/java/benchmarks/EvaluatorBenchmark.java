@@ -0,0 +1,83 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.bitboard.Bitboard;
+import chess.bitboard.Fen;
+import chess.bitboard.Move;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.Position;
+import chess.engine.Evaluator;
+import chess.engine.MaterialEvaluator;
+import chess.engine.PieceSquareEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of static evaluation: updating the running totals for a move and
+ * reading the score, against recounting from the bitboard or from the
+ * {@code ChessPiece[][]} grid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+    @Param({"pesto", "material"})
+    public String evaluatorName;
+
+    private Evaluator evaluator;
+    private Position position;
+    private ChessBoard board;
+    private int move;
+    private int piece;
+
+    @Setup
+    public void setup() {
+        evaluator = evaluatorName.equals("pesto") ? new PieceSquareEvaluator() : new MaterialEvaluator();
+        ChessGame game = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        board = game.getBoard();
+        position = Position.of(game);
+        evaluator.reset(position.board());
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        position.generate(moves, 0);
+        move = moves[0];
+        piece = position.board().pieceAt(Move.from(move));
+    }
+
+    @Benchmark
+    public int incrementalMoveAndEvaluate() {
+        evaluator.remove(piece, Move.from(move));
+        evaluator.add(piece, Move.to(move));
+        int score = evaluator.evaluate(Bitboard.BLACK);
+        evaluator.remove(piece, Move.to(move));
+        evaluator.add(piece, Move.from(move));
+        return score;
+    }
+
+    @Benchmark
+    public int recountFromBitboard() {
+        evaluator.reset(position.board());
+        return evaluator.evaluate(Bitboard.WHITE);
+    }
+
+    @Benchmark
+    public int recountFromPieceGrid() {
+        // what an evaluator would pay walking the 64-square grid at every node
+        evaluator.reset(new Bitboard());
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece chessPiece = board.getPiece(ChessPosition.of(row, col));
+                if (chessPiece != null) {
+                    evaluator.add(Bitboard.piece(chessPiece), Bitboard.square(row, col));
+                }
+            }
+        }
+        return evaluator.evaluate(Bitboard.WHITE);
+    }
+}
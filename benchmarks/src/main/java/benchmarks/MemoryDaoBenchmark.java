@@ -0,0 +1,78 @@
+package benchmarks;
+
+import dataaccess.implementations.MemoryAuthDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import exception.DataAccessException;
+import model.AuthData;
+import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
+import model.UserData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory DAOs, as a floor for what the MySQL DAOs cost on top of the data model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryDaoBenchmark {
+
+    @Param({"10", "1000"})
+    public int games;
+
+    private MemoryGameDAO gameDAO;
+    private MemoryAuthDAO authDAO;
+    private AuthData auth;
+    private final UserData user = new UserData("player", "password", "player@mail.com");
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        gameDAO = new MemoryGameDAO();
+        for (int i = 0; i < games; i++) {
+            gameDAO.createGame("game" + i);
+        }
+        authDAO = new MemoryAuthDAO();
+        auth = authDAO.createAuth(user);
+    }
+
+    @Benchmark
+    public int createGame() {
+        return gameDAO.createGame("new game");
+    }
+
+    @Benchmark
+    public GameData getGame() {
+        return gameDAO.getGame(games / 2 + 1);
+    }
+
+    @Benchmark
+    public Collection<GameData> listGames() {
+        return gameDAO.listGames();
+    }
+
+    @Benchmark
+    public List<GameSummary> listGameSummaries() {
+        List<GameSummary> summaries = new ArrayList<>(games);
+        gameDAO.listGameSummaries(GameFilter.ALL, 0, games, summaries::add);
+        return summaries;
+    }
+
+    @Benchmark
+    public AuthData createAuth() {
+        return authDAO.createAuth(user);
+    }
+
+    @Benchmark
+    public boolean verifyAuth() throws DataAccessException {
+        return authDAO.verifyAuth(auth.authToken());
+    }
+}
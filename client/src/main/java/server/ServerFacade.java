@@ -11,7 +11,7 @@ import websocket.commands.*;
 import javax.websocket.*;
 import java.io.*;
 import java.net.*;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 
 public class ServerFacade extends Endpoint {
 
@@ -53,13 +53,15 @@ public class ServerFacade extends Endpoint {
         }
     }
 
-    public ArrayList<GameData> listGames(String authToken) throws DataAccessException {
+    public GamePage listGames(String authToken) throws DataAccessException {
+        return listGames(authToken, null);
+    }
+
+    // the server sends the list a page at a time; pass a page's nextCursor back to get the page after it
+    public GamePage listGames(String authToken, String cursor) throws DataAccessException {
         try{
-            var path = "/game";
-            record ListGamesResponse(ArrayList<GameData> games) {
-            }
-            var response = this.makeRequest("GET", path, null, ListGamesResponse.class, authToken);
-            return response.games();
+            var path = "/game" + (cursor == null ? "" : "?cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            return this.makeRequest("GET", path, null, GamePage.class, authToken);
         } catch (DataAccessException ex) {
             return null;
         }
@@ -72,7 +72,7 @@ public class BoardPrinter {
             printStart(out, 8 - squareRow);
             for (int boardCol = start; (increment ? boardCol < BOARD_SIZE_IN_SQUARES : boardCol >= 0);
                  boardCol += (increment ? 1 : -1)) {
-                ChessPosition currentPosition = new ChessPosition(8 - squareRow, 1 + boardCol);
+                ChessPosition currentPosition = ChessPosition.of(8 - squareRow, 1 + boardCol);
                 boolean isHighlighted = highlights.contains(currentPosition);
 
                 if (isHighlighted) {
@@ -106,7 +106,7 @@ public class BoardPrinter {
     }
 
     private static String pieceChar(ChessBoard board, int row, int col) {
-        return switch (board.getPiece(new ChessPosition(row, col)).getPieceType()) {
+        return switch (board.getPiece(ChessPosition.of(row, col)).getPieceType()) {
             case PAWN -> "P";
             case KNIGHT -> "N";
             case BISHOP -> "B";
@@ -6,6 +6,7 @@ import chess.ChessPosition;
 import chess.InvalidMoveException;
 import exception.DataAccessException;
 import model.AuthData;
+import model.GamePage;
 import model.UserData;
 import requests.JoinGameRequest;
 import server.ServerFacade;
@@ -23,13 +24,18 @@ import java.util.Scanner;
 import static ui.EscapeSequences.*;
 
 public class UiClient {
+    private static final String BOARD_NOT_LOADED = SET_TEXT_COLOR_RED + "**Board not loaded yet, try again in a moment**\n";
+
     private String username = null;
     private String authToken = null;
     private final ServerFacade server;
     public State state = State.PRESIGNIN;
-    private ChessGame activeGame;
+    // set by LOAD_GAME on the websocket thread; null from joining or observing until the board arrives
+    private volatile ChessGame activeGame;
     private Integer activeGameId;
     private JoinGameRequest.PlayerColor playerColor;
+    // the page of the game list last shown; join and observe number games within it
+    private GamePage gamePage;
 
     public UiClient(String serverUrl, NotificationHandler notificationHandler) throws DeploymentException, URISyntaxException, IOException {
         server = new ServerFacade(serverUrl, notificationHandler);
@@ -50,6 +56,7 @@ public class UiClient {
                 case "logout" -> logout(params);
                 case "create" -> createGame(params);
                 case "list" -> listGames(params);
+                case "next" -> nextGames(params);
                 case "join" -> joinGame(params);
                 case "observe" -> observeGame(params);
                 case "redraw" -> redraw(params);
@@ -86,6 +93,7 @@ public class UiClient {
                     - 'logout'
                     - 'create' game <gameName>
                     - 'list' games
+                    - 'next' page of games
                     - 'join' game <game#> <playerColor>
                     - 'observe' game <game#>
                     - 'help'
@@ -162,6 +170,7 @@ public class UiClient {
 
             if (server.logout(this.authToken)){
                 state = State.PRESIGNIN;
+                gamePage = null;
                 return String.format("**See you next time %s!**\n", username);
             }
             else{
@@ -198,27 +207,68 @@ public class UiClient {
             else if (assertInGame() || assertObserving()){
                 return SET_TEXT_COLOR_RED + "**You must be in the main menu**\n";
             }
-            var games = server.listGames(this.authToken);
-            if (games.isEmpty()){
-                return "**No Games Yet**\n";
+            gamePage = server.listGames(this.authToken);
+            if (gamePage == null){
+                return SET_TEXT_COLOR_RED + "**Unauthorized**\n";
             }
-            var result = new StringBuilder();
-            int counter = 1;
-            for (var game : games) {
-                result.append(counter).append(". ");
-                result.append("Game Name: ").append(game.gameName()).append(",\t");
-                result.append("White: ").append(game.whiteUsername() == null ? "*Available*" : game.whiteUsername()).append(",\t");
-                result.append("Black: ").append(game.blackUsername() == null ? "*Available*" : game.blackUsername());
-                result.append('\n');
-                counter++;
+            if (gamePage.games().isEmpty()){
+                return "**No Games Yet**\n";
             }
-            return result.append("\n").toString();
+            return printGamePage();
         }
         return SET_TEXT_COLOR_RED + "Expected: *JUST LIST*\n";
     }
 
+    public String nextGames(String... params) throws DataAccessException {
+        if (params.length == 0) {
+            if (!assertLoggedIn()){
+                return SET_TEXT_COLOR_RED + "**You must sign in**\n";
+            }
+            else if (assertInGame() || assertObserving()){
+                return SET_TEXT_COLOR_RED + "**You must be in the main menu**\n";
+            }
+            if (gamePage == null){
+                return listGames();
+            }
+            if (gamePage.nextCursor() == null){
+                return "**No More Games**\n";
+            }
+            var next = server.listGames(this.authToken, gamePage.nextCursor());
+            if (next == null){
+                return SET_TEXT_COLOR_RED + "**Unauthorized**\n";
+            }
+            gamePage = next;
+            return printGamePage();
+        }
+        return SET_TEXT_COLOR_RED + "Expected: *JUST NEXT*\n";
+    }
+
+    private String printGamePage() {
+        var result = new StringBuilder();
+        int counter = 1;
+        for (var game : gamePage.games()) {
+            result.append(counter).append(". ");
+            result.append("Game Name: ").append(game.gameName()).append(",\t");
+            result.append("White: ").append(game.whiteUsername() == null ? "*Available*" : game.whiteUsername()).append(",\t");
+            result.append("Black: ").append(game.blackUsername() == null ? "*Available*" : game.blackUsername());
+            result.append('\n');
+            counter++;
+        }
+        if (gamePage.nextCursor() != null){
+            result.append("**More games: 'next' for the next page**\n");
+        }
+        return result.append("\n").toString();
+    }
+
+    // the page join and observe pick from; the first page if no list was shown yet
+    private GamePage currentGamePage() throws DataAccessException {
+        if (gamePage == null){
+            gamePage = server.listGames(this.authToken);
+        }
+        return gamePage;
+    }
+
     public String joinGame(String... params) throws DataAccessException {
-        var games = server.listGames(this.authToken);
         if (params.length != 2) {
             return SET_TEXT_COLOR_RED + "**Expected: <game#> <playerColor>**\n";
         }
@@ -244,25 +294,26 @@ public class UiClient {
         } catch (NumberFormatException ex){
             return SET_TEXT_COLOR_RED + "**Expected: Game Number**\n";
         }
-        if (num <= -1 || num > games.size()) {
+        var page = currentGamePage();
+        if (page == null || num <= -1 || num >= page.games().size()) {
             return SET_TEXT_COLOR_RED + "**Game not available**\n";
         }
+        var games = page.games();
         JoinGameRequest req = new JoinGameRequest(color, games.get(num).gameID());
         if (!server.joinGame(req, this.authToken)) {
             return SET_TEXT_COLOR_RED + "**Team Already Taken**\n";
         }
         state = State.INGAME;
         System.out.print(SET_TEXT_COLOR_BLUE + String.format("**Game %d Successfully joined!**\n", num+1));
-        activeGame = games.get(num).game();
+        // the game list has no boards; the board arrives and is drawn once connected
+        activeGame = null;
         activeGameId = games.get(num).gameID();
         playerColor = color;
         server.connect(games.get(num).gameID(), authToken);
-        BoardPrinter.printBasedOnPov(color, games.get(num).game().getBoard(), new ArrayList<ChessPosition>());
         return "\n";
     }
 
     public String observeGame(String... params) throws DataAccessException{
-        var games = server.listGames(this.authToken);
         int num;
         if (params.length == 1) {
             if (!assertLoggedIn()){
@@ -273,14 +324,15 @@ public class UiClient {
             } catch (NumberFormatException ex) {
                 return SET_TEXT_COLOR_RED + "**Expected: Game Number**\n";
             }
-            if (num > -1 & num <= games.size() - 1) {
+            var page = currentGamePage();
+            if (page != null && num > -1 && num <= page.games().size() - 1) {
+                var games = page.games();
                 System.out.printf("**Currently Observing game %d**\n", num + 1);
-                server.connect(games.get(num).gameID(), authToken);
                 state = State.OBSERVE;
-                activeGame = games.get(num).game();
+                activeGame = null;
                 activeGameId = games.get(num).gameID();
                 playerColor = JoinGameRequest.PlayerColor.WHITE;
-                BoardPrinter.printBasedOnPov(playerColor, games.get(num).game().getBoard(), new ArrayList<ChessPosition>());
+                server.connect(games.get(num).gameID(), authToken);
             } else {
                 return SET_TEXT_COLOR_RED + "**Game not available**\n";
             }
@@ -298,6 +350,9 @@ public class UiClient {
                 return SET_TEXT_COLOR_RED + "**You must be in game**\n";
             }
             if (params.length == 0) {
+                if (activeGame == null){
+                    return BOARD_NOT_LOADED;
+                }
                 BoardPrinter.printBasedOnPov(playerColor, activeGame.getBoard(), new ArrayList<ChessPosition>());
                 return "\n";
             }
@@ -339,10 +394,13 @@ public class UiClient {
                 if (!assertInGame()){
                     return SET_TEXT_COLOR_RED + "**You must be a player in a game**\n";
                 }
+                if (activeGame == null){
+                    return BOARD_NOT_LOADED;
+                }
                 var result = Utility.validateAndParseCoordinates(params[0]);
                 var result1 = Utility.validateAndParseCoordinates(params[1]);
-                ChessPosition start = new ChessPosition((int) result.getFirst(), (int) result.getSecond());
-                ChessPosition end = new ChessPosition((int) result1.getFirst(), (int) result1.getSecond());
+                ChessPosition start = ChessPosition.of((int) result.getFirst(), (int) result.getSecond());
+                ChessPosition end = ChessPosition.of((int) result1.getFirst(), (int) result1.getSecond());
                 // make a route where the pawn is going to be promoted
                 ChessMove move = new ChessMove(start, end, null);
                 activeGame.makeMove(move);
@@ -405,9 +463,12 @@ public class UiClient {
             if (assertLoggedIn()){
                 return SET_TEXT_COLOR_RED + "**You must be in game**\n";
             }
+            if (activeGame == null){
+                return BOARD_NOT_LOADED;
+            }
             try{
                 var result = Utility.validateAndParseCoordinates(params[0]);
-                ChessPosition start = new ChessPosition((int) result.getFirst(), (int) result.getSecond());
+                ChessPosition start = ChessPosition.of((int) result.getFirst(), (int) result.getSecond());
                 // print the board again based on the POV and the available piece moves
                 Collection<ChessMove> moves = activeGame.validMoves(start);
                 ArrayList<ChessPosition> positions = new ArrayList<>();
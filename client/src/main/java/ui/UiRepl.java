@@ -3,6 +3,7 @@ package ui;
 import chess.ChessGame;
 import chess.ChessPosition;
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import websocket.NotificationHandler;
 import websocket.messages.*;
 
@@ -62,14 +63,17 @@ public class UiRepl implements NotificationHandler{
 
         switch (notMessage.getServerMessageType()){
             case NOTIFICATION, ERROR -> System.out.println(new Gson().fromJson(message, NotificationMessage.class).getMessage() + '\n');
-            case LOAD_GAME -> loadGame(new Gson().fromJson(message, LoadGameMessage.class).getGame());
+            case LOAD_GAME -> {
+                LoadGameMessage<ChessGame> load = new Gson().fromJson(message,
+                        new TypeToken<LoadGameMessage<ChessGame>>() { }.getType());
+                loadGame(load.getGame());
+            }
         }
     }
 
-    public <T> void loadGame(T game){
+    public void loadGame(ChessGame game){
         if (game != null){
-            ChessGame chessGame = (ChessGame) game;
-            uiClient.updateActiveGame(chessGame);
+            uiClient.updateActiveGame(game);
             BoardPrinter.printBasedOnPov(uiClient.getPlayerColor(), uiClient.getActiveGame().getBoard(), new ArrayList<ChessPosition>());
         }
     }
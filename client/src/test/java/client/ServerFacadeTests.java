@@ -4,11 +4,14 @@ import chess.ChessGame;
 import exception.DataAccessException;
 import model.AuthData;
 import model.GameData;
+import model.GamePage;
+import model.GameSummary;
 import model.UserData;
 import org.junit.jupiter.api.*;
 import requests.JoinGameRequest;
 import server.Server;
 import server.ServerFacade;
+import service.GameService;
 
 import java.util.*;
 
@@ -117,13 +120,32 @@ public class ServerFacadeTests {
         assertTrue(game3);
         expectedList.add(new GameData(3, null, null, game2Name, new ChessGame()));
         //list games
-        ArrayList<GameData> listResult = serverFacade.listGames(user.authToken());
+        List<GameSummary> listResult = serverFacade.listGames(user.authToken()).games();
         assertNotNull(listResult);
-        Collection<GameData> returnedList = new HashSet<>(listResult);
+        Collection<GameSummary> returnedList = new HashSet<>(listResult);
         //check
         Assertions.assertEquals(expectedList.size(), returnedList.size(), "Returned Games list was incorrect");
     }
 
+    @Test
+    @DisplayName("List Games Past The First Page")
+    public void gamesListAcrossPages() throws DataAccessException {
+        AuthData user = serverFacade.login(existingUser.username(), existingUser.password());
+        int count = GameService.DEFAULT_PAGE_SIZE + 5;
+        for (int i = 0; i < count; i++) {
+            assertTrue(serverFacade.createGame("game" + i, user.authToken()));
+        }
+        GamePage first = serverFacade.listGames(user.authToken());
+        assertNotNull(first);
+        Assertions.assertEquals(GameService.DEFAULT_PAGE_SIZE, first.games().size());
+        assertNotNull(first.nextCursor(), "First page did not point at the next one");
+        GamePage second = serverFacade.listGames(user.authToken(), first.nextCursor());
+        assertNotNull(second);
+        Assertions.assertEquals(5, second.games().size(), "Games after the first page were missing");
+        Assertions.assertEquals("game" + (count - 1), second.games().getLast().gameName());
+        assertNull(second.nextCursor());
+    }
+
     @Test
     @DisplayName("Unique Authtoken Each Login")
     public void uniqueAuthorizationTokens() throws DataAccessException {
@@ -139,7 +161,7 @@ public class ServerFacadeTests {
         serverFacade.logout(loginTwo.authToken());
         assertFalse(serverFacade.createGame("createGameTwo", loginTwo.authToken()));
 
-        ArrayList<GameData> listResult = serverFacade.listGames(loginOne.authToken());
+        List<GameSummary> listResult = serverFacade.listGames(loginOne.authToken()).games();
         assertNotNull(listResult);
         Assertions.assertEquals(1, listResult.size());
     }
@@ -171,7 +193,7 @@ public class ServerFacadeTests {
         boolean joinResult = serverFacade.joinGame(joinRequest, user.authToken());
         //check
         assertTrue(joinResult);
-        ArrayList<GameData> listResult = serverFacade.listGames(user.authToken());
+        List<GameSummary> listResult = serverFacade.listGames(user.authToken()).games();
         Assertions.assertEquals(1, listResult.size());
         Assertions.assertEquals(existingUser.username(), listResult.get(0).whiteUsername());
         Assertions.assertNull(listResult.get(0).blackUsername());
@@ -216,7 +238,7 @@ public class ServerFacadeTests {
         //log in new user and check that list is empty
         registerResult = serverFacade.registerUser(existingUser);
         assertNotNull(registerResult);
-        ArrayList<GameData> listResult = serverFacade.listGames(registerResult.authToken());
+        List<GameSummary> listResult = serverFacade.listGames(registerResult.authToken()).games();
         assertNotNull(listResult);
         //check listResult
         Assertions.assertEquals(0, listResult.size(), "list result did not return 0 games after clear");
@@ -1,5 +1,9 @@
+import chess.ChessGame;
+import chess.engine.EndgameTablebase;
 import server.Server;
 
+import java.nio.file.Path;
+
 public class MainServer {
 
     /**
@@ -11,6 +15,9 @@ public class MainServer {
             if (args.length >= 1) {
                 port = Integer.parseInt(args[0]);
             }
+            if (args.length >= 2) {
+                ChessGame.setTablebase(EndgameTablebase.open(Path.of(args[1])));
+            }
             var server = new Server();
             server.run(port);
 
@@ -22,7 +29,7 @@ public class MainServer {
         }
         System.out.println("""
                 Pet Server:
-                java ServerMain <port> [sql]
+                java ServerMain <port> [tablebase file]
                 """);
     }
 }
\ No newline at end of file
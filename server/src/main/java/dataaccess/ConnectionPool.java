@@ -0,0 +1,319 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of JDBC connections.
+ * <p>
+ * At most {@code maxSize} connections are lent out at once; a caller that
+ * finds them all in use waits up to {@code maxWaitMillis} and then gets an
+ * {@link SQLException}. The connections handed out are wrappers whose
+ * {@code close()} gives the real connection back, so callers keep using
+ * try-with-resources exactly as they would with a fresh connection.
+ * <p>
+ * Idle connections are kept most recently used first. One that has sat
+ * idle for longer than {@link #VALIDATE_AFTER_MILLIS} is checked with
+ * {@link Connection#isValid(int)} before it is lent out again. Connections
+ * idle for longer than {@code idleTimeoutMillis}, or open for longer than
+ * {@code maxLifetimeMillis}, are closed, either when they are next looked
+ * at or by a background sweep.
+ */
+public class ConnectionPool implements AutoCloseable {
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * A snapshot of the pool's counters
+     *
+     * @param active          connections lent out right now
+     * @param idle            connections open and waiting to be lent
+     * @param waiting         callers waiting for a connection
+     * @param created         physical connections opened so far
+     * @param closed          physical connections closed so far, for any reason
+     * @param borrowed        connections lent out so far
+     * @param timeouts        callers that gave up waiting
+     * @param totalWaitMillis time callers have spent waiting for a connection, added up
+     */
+    public record Stats(int active, int idle, int waiting, long created, long closed, long borrowed,
+                        long timeouts, long totalWaitMillis) {
+    }
+
+    // a connection used this recently is trusted without asking the server
+    static final long VALIDATE_AFTER_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+
+    private final Semaphore permits;
+    // most recently returned first; guarded by itself
+    private final Deque<Pooled> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closedCount = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    /**
+     * @param factory           opens the physical connections
+     * @param maxSize           most connections open and lent out at once
+     * @param maxWaitMillis     how long a caller waits for a connection before giving up
+     * @param idleTimeoutMillis how long a connection may sit unused before it is closed
+     * @param maxLifetimeMillis how long a connection is used for at most, so none outlives a server-side timeout
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long maxWaitMillis, long idleTimeoutMillis,
+                          long maxLifetimeMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool needs room for at least one connection");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweep = Math.max(1000, Math.min(idleTimeoutMillis, maxLifetimeMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::evictExpired, sweep, sweep, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lends out a connection, opening one if none is idle and the pool has room
+     *
+     * @return a connection whose close() returns it to the pool
+     * @throws SQLException if none frees up in time, or a new one cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException(String.format("Timed out after %d ms waiting for a database connection", maxWaitMillis));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection", ex);
+        } finally {
+            waitNanos.addAndGet(System.nanoTime() - start);
+        }
+        try {
+            Pooled pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new Pooled(factory.open());
+                created.incrementAndGet();
+            }
+            borrowed.incrementAndGet();
+            return pooled.lend();
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return the most recently used idle connection still fit to use, or null if there is none
+     */
+    private Pooled takeIdle() {
+        while (true) {
+            Pooled pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            if (pooled.expired(now)) {
+                discard(pooled);
+            } else if (now - pooled.lastUsed > VALIDATE_AFTER_MILLIS && !pooled.isValid()) {
+                discard(pooled);
+            } else {
+                return pooled;
+            }
+        }
+    }
+
+    private void giveBack(Pooled pooled) {
+        try {
+            if (closed || pooled.physical.isClosed() || pooled.expired(System.currentTimeMillis())) {
+                discard(pooled);
+                return;
+            }
+            // the next borrower expects a connection in its default state
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsed = System.currentTimeMillis();
+            synchronized (idle) {
+                idle.addFirst(pooled);
+            }
+        } catch (SQLException ex) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes idle connections that have been unused or open for too long
+     */
+    void evictExpired() {
+        long now = System.currentTimeMillis();
+        List<Pooled> expired = new ArrayList<>();
+        synchronized (idle) {
+            idle.removeIf(pooled -> {
+                if (pooled.expired(now)) {
+                    expired.add(pooled);
+                    return true;
+                }
+                return false;
+            });
+        }
+        expired.forEach(this::discard);
+    }
+
+    private void discard(Pooled pooled) {
+        closedCount.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            // it is being thrown away either way
+        }
+    }
+
+    public Stats stats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new Stats(maxSize - permits.availablePermits(), idleCount, permits.getQueueLength(),
+                created.get(), closedCount.get(), borrowed.get(), timeouts.get(),
+                TimeUnit.NANOSECONDS.toMillis(waitNanos.get()));
+    }
+
+    /**
+     * Closes every idle connection and stops lending; connections lent out are closed as they come back
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        List<Pooled> remaining;
+        synchronized (idle) {
+            remaining = new ArrayList<>(idle);
+            idle.clear();
+        }
+        remaining.forEach(this::discard);
+    }
+
+    /**
+     * A physical connection and the times the pool judges it by
+     */
+    private final class Pooled {
+        final Connection physical;
+        final long openedAt = System.currentTimeMillis();
+        long lastUsed = openedAt;
+
+        Pooled(Connection physical) {
+            this.physical = physical;
+        }
+
+        boolean expired(long now) {
+            return now - openedAt >= maxLifetimeMillis || now - lastUsed >= idleTimeoutMillis;
+        }
+
+        boolean isValid() {
+            try {
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+
+        Connection lend() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Lease(this));
+        }
+    }
+
+    /**
+     * Stands in for the physical connection while it is lent out. Closing it
+     * returns the connection once; after that it acts like a closed connection.
+     */
+    private final class Lease implements InvocationHandler {
+        private final Pooled pooled;
+        private boolean returned;
+
+        Lease(Pooled pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        giveBack(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled" + pooled.physical;
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
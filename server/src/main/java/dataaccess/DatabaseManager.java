@@ -10,6 +10,8 @@ public class DatabaseManager {
     private static final String USER;
     private static final String PASSWORD;
     private static final String CONNECTION_URL;
+    // every DAO call borrows from here rather than opening a connection of its own
+    private static final ConnectionPool POOL;
 
     /*
      * Load the database information for the db.properties file.
@@ -29,6 +31,13 @@ public class DatabaseManager {
                 var host = props.getProperty("db.host");
                 var port = Integer.parseInt(props.getProperty("db.port"));
                 CONNECTION_URL = String.format("jdbc:mysql://%s:%d", host, port);
+
+                // pool settings are optional; the defaults suit a single server process
+                POOL = new ConnectionPool(DatabaseManager::openConnection,
+                        Integer.parseInt(props.getProperty("db.pool.size", "10")),
+                        Long.parseLong(props.getProperty("db.pool.maxWaitMillis", "5000")),
+                        Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "600000")),
+                        Long.parseLong(props.getProperty("db.pool.maxLifetimeMillis", "1800000")));
             }
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
@@ -39,12 +48,11 @@ public class DatabaseManager {
      * Creates the database if it does not already exist.
      */
     public static void createDatabase() throws DataAccessException {
-        try {
-            var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            try (var preparedStatement = conn.prepareStatement(statement)) {
-                preparedStatement.executeUpdate();
-            }
+        // the database may not exist yet, so this one connection is made outside the pool, which selects it
+        var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
+        try (var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+             var preparedStatement = conn.prepareStatement(statement)) {
+            preparedStatement.executeUpdate();
         } catch (SQLException e) {
             throw new DataAccessException(500, e.getMessage());
         }
@@ -62,9 +70,10 @@ public class DatabaseManager {
         }
     }
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
+     * Borrows a connection to the database from the pool, with the catalog set
+     * from the properties specified in db.properties. Connections to the database should
+     * be short-lived, and you must close the connection when you are done with it,
+     * which hands it back to the pool.
      * The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
@@ -75,11 +84,27 @@ public class DatabaseManager {
      */
     public static Connection getConnection() throws DataAccessException {
         try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+            return POOL.getConnection();
+        } catch (SQLException e) {
+            throw new DataAccessException(500, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the connection pool's current counters
+     */
+    public static ConnectionPool.Stats poolStats() {
+        return POOL.stats();
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+        try {
             conn.setCatalog(DATABASE_NAME);
             return conn;
         } catch (SQLException e) {
-            throw new DataAccessException(500, e.getMessage());
+            conn.close();
+            throw e;
         }
     }
 }
@@ -1,14 +1,20 @@
 package dataaccess.implementations;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import dataaccess.interfaces.GameDAO;
 import exception.DataAccessException;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 import requests.JoinGameRequest;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
 
 public class MemoryGameDAO implements GameDAO {
     final private HashMap<Integer, GameData> games = new HashMap<>();
@@ -18,6 +24,8 @@ public class MemoryGameDAO implements GameDAO {
     @Override
     public void clear() {
         games.clear();
+        // numbering starts over, as it does when the MySQL table is truncated
+        gameID = 1;
     }
 
     @Override
@@ -61,6 +69,18 @@ public class MemoryGameDAO implements GameDAO {
         return games.values();
     }
 
+    @Override
+    public boolean listGameSummaries(GameFilter filter, int afterGameID, int limit, Consumer<GameSummary> sink) {
+        List<GameSummary> page = games.values().stream()
+                .filter(game -> game.gameID() > afterGameID && filter.matches(game))
+                .sorted(Comparator.comparingInt(GameData::gameID))
+                .limit(limit + 1L)
+                .map(GameSummary::of)
+                .toList();
+        page.stream().limit(limit).forEach(sink);
+        return page.size() > limit;
+    }
+
     public ArrayList<Integer> onlyGames() {
         return new ArrayList<>(games.keySet());
     }
@@ -70,6 +90,14 @@ public class MemoryGameDAO implements GameDAO {
         return null;
     }
 
+    @Override
+    public void appendMove(int gameID, ChessMove move, ChessGame game) {
+        GameData data = games.get(gameID);
+        if (data != null) {
+            games.put(gameID, new GameData(gameID, data.whiteUsername(), data.blackUsername(), data.gameName(), game));
+        }
+    }
+
     public boolean removePlayer(int gameID, String userName) throws DataAccessException{
         return false;
     }
@@ -1,30 +1,45 @@
 package dataaccess.implementations;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameCodec;
+import chess.MoveUndo;
+import chess.bitboard.Castling;
+import chess.bitboard.Move;
 import com.google.gson.Gson;
+import com.google.gson.JsonParser;
 import dataaccess.DatabaseManager;
 import dataaccess.interfaces.GameDAO;
 import exception.DataAccessException;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 import requests.JoinGameRequest;
 
 import javax.xml.crypto.Data;
+import java.nio.charset.StandardCharsets;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import static java.sql.Statement.RETURN_GENERATED_KEYS;
 import static java.sql.Types.NULL;
 
 
 public class MySqlGameDAO implements GameDAO {
+    // the chessgame column is rewritten every this many plies, so loading a game never replays more moves than this
+    private static final int SNAPSHOT_INTERVAL = 16;
 
     // added the throw block to catch in case there are any bugs that come from the initialization
     public MySqlGameDAO() {
         try{
             DatabaseManager.configureDatabase(createStatements);
+            migrateGameColumn();
+            migrateListingColumns();
         } catch (Exception ignored){
             System.out.println(ignored.getMessage());
         }
@@ -34,12 +49,13 @@ public class MySqlGameDAO implements GameDAO {
     public void clear() throws DataAccessException {
         var statement = "TRUNCATE games";
         executeUpdate(statement);
+        executeUpdate("TRUNCATE game_moves");
     }
 
     @Override
     public int createGame(String gameName) throws DataAccessException {
         var statement = "INSERT INTO games (whiteusername, blackusername, gamename, chessgame) VALUES (?, ?, ?, ?)";
-        var chessgame = new Gson().toJson(new ChessGame());
+        var chessgame = GameCodec.encode(new ChessGame());
         return executeUpdate(statement, null, null, gameName, chessgame);
     }
 
@@ -49,15 +65,16 @@ public class MySqlGameDAO implements GameDAO {
         Collection<GameData> gamelst = new ArrayList<>();
         try (var conn = DatabaseManager.getConnection()) {
             String statement = "SELECT * FROM games";
-            try (var ps = conn.prepareStatement(statement)) {
+            try (var ps = conn.prepareStatement(statement); var replay = conn.prepareStatement(REPLAY_STATEMENT)) {
                 try (var rs = ps.executeQuery()) {
                     while (rs.next()) {
                         var gameid = rs.getInt("gameid");
                         var whiteusername = rs.getString("whiteusername");
                         var blackusername = rs.getString("blackusername");
                         var gamename = rs.getString("gamename");
-                        var chessgame = rs.getString("chessgame");
-                        gamelst.add(new GameData(gameid, whiteusername, blackusername, gamename, new Gson().fromJson(chessgame, ChessGame.class)));
+                        var chessgame = readGame(rs.getBytes("chessgame"));
+                        replayMoves(replay, gameid, chessgame);
+                        gamelst.add(new GameData(gameid, whiteusername, blackusername, gamename, chessgame));
                     }
                     return gamelst;
                 }
@@ -67,6 +84,62 @@ public class MySqlGameDAO implements GameDAO {
         }
     }
 
+    // only the columns the game list shows, so no board is read, decoded or replayed. Each way of being seated
+    // is its own SELECT so it can range over its index from the cursor on, already in gameid order; UNION merges them
+    @Override
+    public boolean listGameSummaries(GameFilter filter, int afterGameID, int limit, Consumer<GameSummary> sink)
+            throws DataAccessException {
+        List<String> seats = new ArrayList<>();
+        if (filter.player() != null) {
+            seats.add("whiteusername=?" + (filter.openSeat() ? " AND blackusername IS NULL" : ""));
+            seats.add("blackusername=?" + (filter.openSeat() ? " AND whiteusername IS NULL" : ""));
+        } else if (filter.openSeat()) {
+            seats.add("whiteusername IS NULL");
+            seats.add("blackusername IS NULL");
+        } else {
+            seats.add("TRUE");
+        }
+
+        // one row past the page says whether there is another page
+        List<Object> params = new ArrayList<>();
+        List<String> selects = new ArrayList<>();
+        for (String seat : seats) {
+            selects.add("SELECT gameid, whiteusername, blackusername, gamename FROM games WHERE " + seat
+                    + " AND gameid>?" + (filter.status() == null ? "" : " AND finished=?")
+                    + " ORDER BY gameid LIMIT ?");
+            if (filter.player() != null) {
+                params.add(filter.player());
+            }
+            params.add(afterGameID);
+            if (filter.status() != null) {
+                params.add(filter.status() == GameFilter.Status.FINISHED);
+            }
+            params.add(limit + 1);
+        }
+        var statement = selects.getFirst();
+        if (selects.size() > 1) {
+            statement = "(" + String.join(") UNION (", selects) + ") ORDER BY gameid LIMIT ?";
+            params.add(limit + 1);
+        }
+
+        try (var conn = DatabaseManager.getConnection(); var ps = conn.prepareStatement(statement)) {
+            setParams(params.toArray(), ps);
+            try (var rs = ps.executeQuery()) {
+                int count = 0;
+                while (rs.next()) {
+                    if (++count > limit) {
+                        return true;
+                    }
+                    sink.accept(new GameSummary(rs.getInt("gameid"), rs.getString("whiteusername"),
+                            rs.getString("blackusername"), rs.getString("gamename")));
+                }
+                return false;
+            }
+        } catch (Exception e) {
+            throw new DataAccessException(500, String.format("Unable to read data: %s", e.getMessage()));
+        }
+    }
+
     // Gets just the gameids from the games table for a list of just ids
     @Override
     public ArrayList<Integer> onlyGames() throws DataAccessException {
@@ -100,12 +173,17 @@ public class MySqlGameDAO implements GameDAO {
                         var whiteusername = rs.getString("whiteusername");
                         var blackusername = rs.getString("blackusername");
                         var gamename = rs.getString("gamename");
-                        var chessgame = rs.getString("chessgame");
-                        gamedat = new GameData(gameid, whiteusername, blackusername, gamename, new Gson().fromJson(chessgame, ChessGame.class));
+                        var chessgame = readGame(rs.getBytes("chessgame"));
+                        gamedat = new GameData(gameid, whiteusername, blackusername, gamename, chessgame);
                     }
-                    return gamedat;
                 }
             }
+            if (gamedat != null) {
+                try (var replay = conn.prepareStatement(REPLAY_STATEMENT)) {
+                    replayMoves(replay, gameID, gamedat.game());
+                }
+            }
+            return gamedat;
         } catch (Exception e) {
             throw new DataAccessException(500, String.format("Unable to read data: %s", e.getMessage()));
         }
@@ -116,10 +194,10 @@ public class MySqlGameDAO implements GameDAO {
     public boolean addPlayer(int gameID, JoinGameRequest.PlayerColor teamColor, String userName) throws DataAccessException {
         GameData game = this.getGame(gameID);
         var statement = "UPDATE games SET whiteusername=?, blackusername=?, gamename=?, chessgame=? WHERE gameid=?";
-        var gamejson = new Gson().toJson(game);
+        var chessgame = GameCodec.encode(game.game());
         if (teamColor == JoinGameRequest.PlayerColor.WHITE){
             if (game.whiteUsername() == null){
-                executeUpdate(statement, userName, game.blackUsername(), game.gameName(), gamejson, gameID);
+                executeUpdate(statement, userName, game.blackUsername(), game.gameName(), chessgame, gameID);
                 return true;
             }
             if (game.whiteUsername().equals(userName)){
@@ -131,7 +209,7 @@ public class MySqlGameDAO implements GameDAO {
         }
         else{
             if (game.blackUsername() == null){
-                executeUpdate(statement, game.whiteUsername(), userName, game.gameName(), gamejson, gameID);
+                executeUpdate(statement, game.whiteUsername(), userName, game.gameName(), chessgame, gameID);
                 return true;
             }
             if (game.blackUsername().equals(userName)){
@@ -170,24 +248,35 @@ public class MySqlGameDAO implements GameDAO {
 
     public ChessGame updateGame(int gameID, ChessGame newGame) throws DataAccessException {
         try{
-            var statement = "UPDATE games SET chessgame=? WHERE gameid=?";
-            var gamejson = new Gson().toJson(newGame);
-            executeUpdate(statement, gamejson, gameID);
+            var statement = "UPDATE games SET chessgame=?, finished=? WHERE gameid=?";
+            executeUpdate(statement, GameCodec.encode(newGame), newGame.getGameState().isOver(), gameID);
+            // logged moves from the stored round on belong to whatever game was there before
+            executeUpdate("DELETE FROM game_moves WHERE gameid=? AND ply>=?", gameID, newGame.getRound());
             return getGame(gameID).game();
         } catch (DataAccessException ex) {
             return null;
         }
     }
 
+    // a move is one small insert; the full game is only written out every SNAPSHOT_INTERVAL plies
+    @Override
+    public void appendMove(int gameID, ChessMove move, ChessGame game) throws DataAccessException {
+        var statement = "INSERT INTO game_moves (gameid, ply, move) VALUES (?, ?, ?)";
+        executeUpdate(statement, gameID, game.getRound() - 1, Move.of(move));
+        if (game.getRound() % SNAPSHOT_INTERVAL == 0) {
+            executeUpdate("UPDATE games SET chessgame=? WHERE gameid=?", GameCodec.encode(game), gameID);
+        }
+    }
+
     public JoinGameRequest.PlayerColor getTeamColor(int gameID, String username) throws DataAccessException {
         GameData game = this.getGame(gameID);
         if (game == null){
             throw new DataAccessException(403, "Error: Game not found");
         }
-        if (Objects.equals(getGame(gameID).blackUsername(), username)){
+        if (Objects.equals(game.blackUsername(), username)){
             return JoinGameRequest.PlayerColor.BLACK;
         }
-        else if (Objects.equals(getGame(gameID).whiteUsername(), username)){
+        else if (Objects.equals(game.whiteUsername(), username)){
             return JoinGameRequest.PlayerColor.WHITE;
         }
         return null;
@@ -216,6 +305,8 @@ public class MySqlGameDAO implements GameDAO {
             switch (param) {
                 case String p -> ps.setString(i + 1, p);
                 case Integer p -> ps.setInt(i + 1, p);
+                case Boolean p -> ps.setBoolean(i + 1, p);
+                case byte[] p -> ps.setBytes(i + 1, p);
                 case null -> ps.setNull(i + 1, NULL);
                 default -> {
                 }
@@ -223,6 +314,98 @@ public class MySqlGameDAO implements GameDAO {
         }
     }
 
+    // moves logged since the stored game was written, which start at its round
+    private static final String REPLAY_STATEMENT = "SELECT move FROM game_moves WHERE gameid=? AND ply>=? ORDER BY ply";
+
+    // brings a stored game up to date by playing the logged moves onto it; they were checked when they were made
+    private static void replayMoves(PreparedStatement replay, int gameID, ChessGame game) throws SQLException {
+        if (game == null) {
+            return;
+        }
+        replay.setInt(1, gameID);
+        replay.setInt(2, game.getRound());
+        try (var rs = replay.executeQuery()) {
+            MoveUndo undo = new MoveUndo();
+            while (rs.next()) {
+                game.makeMove(Move.toChessMove(rs.getInt("move")), undo);
+            }
+        }
+    }
+
+    // games are stored packed by GameCodec, but rows written before that hold Gson JSON, which always starts with '{'
+    private static ChessGame readGame(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length > 0 && stored[0] == GameCodec.FORMAT) {
+            return GameCodec.decode(stored);
+        }
+        String json = new String(stored, StandardCharsets.UTF_8);
+        ChessGame game = new Gson().fromJson(json, ChessGame.class);
+        // JSON from before castling was tracked has no rights in it, and the default of all four would hand back
+        // rights a king or rook move already gave up, so they are worked out from what is still on its home square
+        if (game != null && !JsonParser.parseString(json).getAsJsonObject().has("castlingRights")) {
+            game.setCastlingRights(Castling.fromBoard(game.getBoard().getBitboard()));
+        }
+        return game;
+    }
+
+    // tables made before games were packed have a TEXT column, which can't hold the bytes; its JSON rows carry over as they are
+    private void migrateGameColumn() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            var statement = "SELECT DATA_TYPE FROM information_schema.COLUMNS "
+                    + "WHERE TABLE_SCHEMA=DATABASE() AND TABLE_NAME='games' AND COLUMN_NAME='chessgame'";
+            try (var ps = conn.prepareStatement(statement); var rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getString(1).equalsIgnoreCase("blob")) {
+                    return;
+                }
+            }
+            try (var ps = conn.prepareStatement("ALTER TABLE games MODIFY `chessgame` BLOB DEFAULT NULL")) {
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(500, String.format("Unable to configure database: %s", e.getMessage()));
+        }
+    }
+
+    // tables made before the list could be filtered have no finished column or indexes; games already over are marked once
+    private void migrateListingColumns() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            var statement = "SELECT COUNT(*) FROM information_schema.COLUMNS "
+                    + "WHERE TABLE_SCHEMA=DATABASE() AND TABLE_NAME='games' AND COLUMN_NAME='finished'";
+            try (var ps = conn.prepareStatement(statement); var rs = ps.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+            try (var ps = conn.prepareStatement("ALTER TABLE games ADD COLUMN `finished` BOOLEAN NOT NULL DEFAULT FALSE, "
+                    + "ADD INDEX white_games (`whiteusername`), ADD INDEX black_games (`blackusername`), "
+                    + "ADD INDEX finished_games (`finished`)")) {
+                ps.executeUpdate();
+            }
+            List<Integer> finished = new ArrayList<>();
+            try (var ps = conn.prepareStatement("SELECT gameid, chessgame FROM games");
+                 var replay = conn.prepareStatement(REPLAY_STATEMENT);
+                 var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    var chessgame = readGame(rs.getBytes("chessgame"));
+                    replayMoves(replay, rs.getInt("gameid"), chessgame);
+                    if (chessgame != null && chessgame.getGameState().isOver()) {
+                        finished.add(rs.getInt("gameid"));
+                    }
+                }
+            }
+            try (var ps = conn.prepareStatement("UPDATE games SET finished=TRUE WHERE gameid=?")) {
+                for (int gameID : finished) {
+                    ps.setInt(1, gameID);
+                    ps.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(500, String.format("Unable to configure database: %s", e.getMessage()));
+        }
+    }
+
     // statment is for creating the table if it doesn't already exist
     private final String[] createStatements = {
         """
@@ -231,9 +414,21 @@ public class MySqlGameDAO implements GameDAO {
             `whiteusername` VARCHAR(256) DEFAULT NULL,
             `blackusername` VARCHAR(256) DEFAULT NULL,
             `gamename` VARCHAR(256) NOT NULL,
-            `chessgame` TEXT DEFAULT NULL,
-            PRIMARY KEY (`gameid`)
+            `chessgame` BLOB DEFAULT NULL,
+            `finished` BOOLEAN NOT NULL DEFAULT FALSE,
+            PRIMARY KEY (`gameid`),
+            INDEX white_games (`whiteusername`),
+            INDEX black_games (`blackusername`),
+            INDEX finished_games (`finished`)
         ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+        """,
+        """
+        CREATE TABLE IF NOT EXISTS game_moves (
+            `gameid` INT NOT NULL,
+            `ply` INT NOT NULL,
+            `move` SMALLINT NOT NULL,
+            PRIMARY KEY (`gameid`, `ply`)
+        ) ENGINE=InnoDB
         """
     };
 }
@@ -1,12 +1,16 @@
 package dataaccess.interfaces;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import exception.DataAccessException;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 import requests.JoinGameRequest;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Consumer;
 
 public interface GameDAO {
     void clear() throws DataAccessException;
@@ -19,9 +23,28 @@ public interface GameDAO {
 
     Collection<GameData> listGames() throws DataAccessException;
 
+    /**
+     * Reads one page of the game list without loading any boards, handing each game to the sink as it is read.
+     * Games come in the order they were created.
+     *
+     * @param afterGameID the page starts with the first matching game after this one; 0 for the first page
+     * @param limit       most games to hand over
+     * @return True if more games match after the ones handed over
+     */
+    boolean listGameSummaries(GameFilter filter, int afterGameID, int limit, Consumer<GameSummary> sink)
+            throws DataAccessException;
+
     ArrayList<Integer> onlyGames() throws DataAccessException;
 
     ChessGame updateGame(int gameID, ChessGame game) throws DataAccessException;
 
+    /**
+     * Records a move played in a game, without rewriting the rest of it
+     *
+     * @param move the move just played
+     * @param game the game with the move made
+     */
+    void appendMove(int gameID, ChessMove move, ChessGame game) throws DataAccessException;
+
     boolean removePlayer(int gameID, String userName) throws DataAccessException;
 }
@@ -17,6 +17,7 @@ import java.util.Map;
 public class Server {
     private UserService userService;
     private GameService gameService;
+    private AnalysisService analysisService;
     private UserDAO userDAO = new MySqlUserDAO();
     private GameDAO gameDAO = new MySqlGameDAO();
     private AuthDAO authDAO = new MySqlAuthDAO();
@@ -24,6 +25,7 @@ public class Server {
     public Server() {
         userService = new UserService(userDAO, authDAO);
         gameService = new GameService(gameDAO, authDAO);
+        analysisService = new AnalysisService(gameDAO, authDAO);
     }
 
     public Server(int memory){
@@ -32,6 +34,7 @@ public class Server {
         userDAO = new MemoryUserDAO();
         userService = new UserService(userDAO, authDAO);
         gameService = new GameService(gameDAO, authDAO);
+        analysisService = new AnalysisService(gameDAO, authDAO);
      }
 
     public int run(int port) {
@@ -47,6 +50,7 @@ public class Server {
         Spark.get("/game", this::listGames); // List Games
         Spark.post("/game", this::createGame); // Create Game
         Spark.put("/game", this::joinGame); // Join Game
+        Spark.get("/game/:id/analysis", this::analyzeGame); // Engine analysis of the current position
         Spark.put("/update", this::update);
         Spark.delete("/db", this::clear); // Clear Application
         Spark.exception(DataAccessException.class, this::exceptionHandler);
@@ -60,6 +64,7 @@ public class Server {
     }
 
     public void stop() {
+        analysisService.shutdown();
         Spark.stop();
         Spark.awaitStop();
     }
@@ -103,19 +108,45 @@ public class Server {
         }
     }
 
-    // added exception handling for the listgames endpoint
+    // a page is at most MAX_PAGE_SIZE games, so it is built whole and any error is reported before anything is sent
     private Object listGames(Request req, Response res) {
         try{
             res.type("application/json");
             String authToken = req.headers("Authorization");
-            var list = gameService.listGames(authToken).toArray();
-            return new Gson().toJson(Map.of("games", list));
+            var filter = listFilter(req);
+            int pageSize = parsePageSize(req.queryParams("pageSize"));
+            return new Gson().toJson(gameService.listGames(authToken, filter, pageSize, req.queryParams("cursor")));
         } catch (DataAccessException ex){
             res.status(ex.statusCode());
             return new Gson().toJson(Map.of("message", ex.getMessage()));
         }
     }
 
+    // ?open=true for games with a free seat, ?player=<username> for someone's games, ?status=active|finished
+    private static GameFilter listFilter(Request req) throws DataAccessException {
+        GameFilter.Status status = null;
+        String param = req.queryParams("status");
+        if (param != null) {
+            try {
+                status = GameFilter.Status.valueOf(param.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new DataAccessException(400, "Error: bad request");
+            }
+        }
+        return new GameFilter(Boolean.parseBoolean(req.queryParams("open")), req.queryParams("player"), status);
+    }
+
+    private static int parsePageSize(String param) throws DataAccessException {
+        if (param == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(param);
+        } catch (NumberFormatException ex) {
+            throw new DataAccessException(400, "Error: bad request");
+        }
+    }
+
     private Object createGame(Request req, Response res) {
         try{
             String authToken = req.headers("Authorization");
@@ -140,6 +171,26 @@ public class Server {
         }
     }
 
+    private Object analyzeGame(Request req, Response res) {
+        try{
+            res.type("application/json");
+            String authToken = req.headers("Authorization");
+            int gameID;
+            int depth;
+            try {
+                gameID = Integer.parseInt(req.params("id"));
+                String depthParam = req.queryParams("depth");
+                depth = depthParam == null ? AnalysisService.DEFAULT_DEPTH : Integer.parseInt(depthParam);
+            } catch (NumberFormatException ex) {
+                throw new DataAccessException(400, "Error: bad request");
+            }
+            return new Gson().toJson(analysisService.analyze(gameID, depth, authToken));
+        } catch (DataAccessException ex){
+            res.status(ex.statusCode());
+            return new Gson().toJson(Map.of("message", ex.getMessage()));
+        }
+    }
+
     private Object update(Request req, Response res){
         try{
             var game = new Gson().fromJson(req.body(), GameData.class);
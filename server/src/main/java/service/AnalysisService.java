@@ -0,0 +1,193 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.bitboard.Fen;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import dataaccess.interfaces.AuthDAO;
+import dataaccess.interfaces.GameDAO;
+import exception.DataAccessException;
+import model.AnalysisData;
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs engine analysis of stored games on a pool of worker threads of its
+ * own, so searches never tie up the threads serving HTTP requests and moves.
+ * <p>
+ * The pool has a fixed number of workers, and only as many requests as
+ * there are workers are taken on at once. An accepted request holds its
+ * HTTP thread until the answer is ready, and those threads also serve
+ * moves, so a request that finds every worker busy is turned away straight
+ * away rather than left waiting. Every request has a deadline: a search
+ * that has not started when it passes is cancelled, and a running search
+ * is told to stop and answers with its deepest finished iteration.
+ */
+public class AnalysisService {
+    public static final int DEFAULT_DEPTH = 8;
+    public static final int MAX_DEPTH = 20;
+
+    // a stopped search needs a moment to unwind before its answer is ready
+    private static final long STOP_GRACE_MILLIS = 250;
+
+    private final GameDAO gameDao;
+    private final AuthDAO authDao;
+    private final ExecutorService workers;
+    // one per worker, held by each request from when it is accepted until it is answered
+    private final Semaphore slots;
+    private final ThreadLocal<Search> searches;
+    private final Set<AnalysisJob> active = ConcurrentHashMap.newKeySet();
+    private final long deadlineMillis;
+
+    public AnalysisService(GameDAO gameDAO, AuthDAO authDAO) {
+        this(gameDAO, authDAO, Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 5000, 16);
+    }
+
+    /**
+     * @param threads        worker threads, each running one search at a time
+     * @param deadlineMillis longest a request may take, queueing included
+     * @param tableMegabytes size of each worker's transposition table
+     */
+    public AnalysisService(GameDAO gameDAO, AuthDAO authDAO, int threads, long deadlineMillis, int tableMegabytes) {
+        this.gameDao = gameDAO;
+        this.authDao = authDAO;
+        this.deadlineMillis = deadlineMillis;
+        AtomicInteger count = new AtomicInteger();
+        this.slots = new Semaphore(threads);
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "analysis-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // a table per worker: every search starts a new table generation, which would age out entries
+        // that searches running on the other workers still rely on
+        this.searches = ThreadLocal.withInitial(() -> new Search(new TranspositionTable(tableMegabytes)));
+    }
+
+    public AnalysisData analyze(int gameID, int depth, String authToken) throws DataAccessException {
+        if (!authDao.verifyAuth(authToken)) {
+            throw new DataAccessException(401, "Error: unauthorized");
+        }
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new DataAccessException(400, "Error: depth must be between 1 and " + MAX_DEPTH);
+        }
+        GameData gameData = gameDao.getGame(gameID);
+        if (gameData == null) {
+            throw new DataAccessException(404, "Error: Game not found");
+        }
+        ChessGame game = gameData.game();
+
+        if (!slots.tryAcquire()) {
+            throw new DataAccessException(503, "Error: analysis is busy, try again later");
+        }
+        AnalysisJob job = new AnalysisJob(game, depth, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis));
+        active.add(job);
+        Future<SearchResult> result = null;
+        try {
+            result = workers.submit(job);
+            long wait = TimeUnit.NANOSECONDS.toMillis(job.deadline - System.nanoTime()) + STOP_GRACE_MILLIS;
+            SearchResult searched = result.get(wait, TimeUnit.MILLISECONDS);
+            if (searched == null) {
+                throw new DataAccessException(504, "Error: analysis timed out");
+            }
+            return toAnalysisData(gameID, searched);
+        } catch (RejectedExecutionException ex) {
+            throw new DataAccessException(503, "Error: analysis is busy, try again later");
+        } catch (TimeoutException ex) {
+            cancel(job, result);
+            throw new DataAccessException(504, "Error: analysis timed out");
+        } catch (InterruptedException ex) {
+            cancel(job, result);
+            Thread.currentThread().interrupt();
+            throw new DataAccessException(500, "Error: analysis interrupted");
+        } catch (CancellationException ex) {
+            cancel(job, result);
+            throw new DataAccessException(503, "Error: analysis was cancelled");
+        } catch (ExecutionException ex) {
+            throw new DataAccessException(500, "Error: " + ex.getCause().getMessage());
+        } finally {
+            active.remove(job);
+            slots.release();
+        }
+    }
+
+    /**
+     * Cancels every queued request and stops the running ones
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+        for (AnalysisJob job : active) {
+            job.cancel();
+        }
+    }
+
+    // a job that has not started never will; a running one is told to stop
+    private static void cancel(AnalysisJob job, Future<SearchResult> result) {
+        job.cancel();
+        if (result != null) {
+            result.cancel(true);
+        }
+    }
+
+    private static AnalysisData toAnalysisData(int gameID, SearchResult result) {
+        List<String> line = new ArrayList<>(result.principalVariation().size());
+        for (ChessMove move : result.principalVariation()) {
+            line.add(Fen.moveName(move));
+        }
+        String bestMove = result.bestMove() == null ? null : Fen.moveName(result.bestMove());
+        return new AnalysisData(gameID, bestMove, result.score(), result.mateIn(), result.depth(), result.nodes(), line);
+    }
+
+    /**
+     * One request's search, which can be cancelled before or while it runs
+     */
+    private class AnalysisJob implements Callable<SearchResult> {
+        private final ChessGame game;
+        private final int depth;
+        private final long deadline;
+        // owned by the job rather than the worker's search, so a cancel that comes before the search starts still counts
+        private final AtomicBoolean stop = new AtomicBoolean();
+
+        AnalysisJob(ChessGame game, int depth, long deadline) {
+            this.game = game;
+            this.depth = depth;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public SearchResult call() {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            // cancelled, or the deadline passed while the job sat in the queue
+            if (stop.get() || remaining <= 0) {
+                return null;
+            }
+            Search worker = searches.get();
+            // the server may have loaded a tablebase since this worker's search was made
+            worker.setTablebase(ChessGame.getTablebase());
+            return worker.search(game, new SearchLimits(depth, 0, remaining), stop);
+        }
+
+        void cancel() {
+            stop.set(true);
+        }
+    }
+}
@@ -7,10 +7,15 @@ import exception.DataAccessException;
 import model.*;
 import requests.JoinGameRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Base64;
+import java.util.List;
 
 public class GameService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final String CURSOR_PREFIX = "after:";
 
     private final GameDAO gameDao;
     private final AuthDAO authDao;
@@ -41,11 +46,46 @@ public class GameService {
         gameDao.addPlayer(game.getGameID(), game.getPlayerColor(), userName);
     }
 
-    public Collection<GameData> listGames(String authToken) throws DataAccessException {
+    /**
+     * Reads one page of the games matching the filter, oldest first
+     *
+     * @param filter   null for every game
+     * @param pageSize most games on the page, or 0 for {@link #DEFAULT_PAGE_SIZE}; capped at {@link #MAX_PAGE_SIZE}
+     * @param cursor   null for the first page, otherwise the cursor returned with the page before
+     * @return the page, whose cursor is null if it is the last
+     */
+    public GamePage listGames(String authToken, GameFilter filter, int pageSize, String cursor) throws DataAccessException {
         if (!authDao.verifyAuth(authToken)) {
             throw new DataAccessException(401, "Error: unauthorized");
         }
-        return gameDao.listGames();
+        if (pageSize < 0) {
+            throw new DataAccessException(400, "Error: bad request");
+        }
+        int limit = pageSize == 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        List<GameSummary> games = new ArrayList<>(limit);
+        boolean more = gameDao.listGameSummaries(filter == null ? GameFilter.ALL : filter, readCursor(cursor), limit,
+                games::add);
+        return new GamePage(games, limit, more ? writeCursor(games.getLast().gameID()) : null);
+    }
+
+    // a cursor is the last game id on the page, encoded so clients pass it back rather than build their own
+    private static String writeCursor(int gameID) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + gameID).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int readCursor(String cursor) throws DataAccessException {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException ignored) {
+            // not base64, or no number inside
+        }
+        throw new DataAccessException(400, "Error: bad request");
     }
 
     public ChessGame updateGame(int gameID, ChessGame game) throws DataAccessException{
@@ -11,6 +11,7 @@ import exception.DataAccessException;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import model.GameData;
 import requests.JoinGameRequest;
 import utility.Utility;
 import websocket.commands.*;
@@ -39,17 +40,23 @@ public class WebSocketHandler {
 
     private void connect(ConnectCommand com, Session session) throws IOException {
         try{
-            connections.add(authDAO.getAuth(com.getAuthToken()).username(), session, com.getGameID());
-            JoinGameRequest.PlayerColor team = gameDAO.getTeamColor(com.getGameID(), authDAO.getAuth(com.getAuthToken()).username());
+            String username = authDAO.getAuth(com.getAuthToken()).username();
+            connections.add(username, session, com.getGameID());
+            JoinGameRequest.PlayerColor team = gameDAO.getTeamColor(com.getGameID(), username);
             String message;
             if (team != null) {
-                message = String.format("%s joined the game as %s!", authDAO.getAuth(com.getAuthToken()).username(), team.name());
+                message = String.format("%s joined the game as %s!", username, team.name());
             }
             else{
-                message = String.format("%s joined as an observer!", authDAO.getAuth(com.getAuthToken()).username());
+                message = String.format("%s joined as an observer!", username);
             }
-            broadcast(message, authDAO.getAuth(com.getAuthToken()).username(), com.getGameID());
-            connections.sendLoadGame(ServerMessage.ServerMessageType.LOAD_GAME, gameDAO.getGame(com.getGameID()), session);
+            GameData gameData = gameDAO.getGame(com.getGameID());
+            if (gameData == null || gameData.game() == null){
+                connections.sendLoadGame(ServerMessage.ServerMessageType.ERROR, "ERROR", session);
+                return;
+            }
+            broadcast(message, username, com.getGameID());
+            connections.sendLoadGame(ServerMessage.ServerMessageType.LOAD_GAME, gameData.game(), session);
         } catch (DataAccessException | IOException ex){
             connections.sendLoadGame(ServerMessage.ServerMessageType.ERROR, "ERROR", session);
         }
@@ -58,7 +65,9 @@ public class WebSocketHandler {
     private void makeMove(MakeMoveCommand com, Session session) throws IOException {
         try{
             var result = Utility.convertMoveToString(com.getMove());
-            JoinGameRequest.PlayerColor team = gameDAO.getTeamColor(com.getGameID(), authDAO.getAuth(com.getAuthToken()).username());
+            // every lookup borrows a database connection, so the user is looked up once
+            String username = authDAO.getAuth(com.getAuthToken()).username();
+            JoinGameRequest.PlayerColor team = gameDAO.getTeamColor(com.getGameID(), username);
             if (team == null){
                 connections.sendLoadGame(ServerMessage.ServerMessageType.ERROR, "ERROR", session);
                 return;
@@ -67,18 +76,28 @@ public class WebSocketHandler {
                 case WHITE -> ChessGame.TeamColor.BLACK;
                 case BLACK -> ChessGame.TeamColor.WHITE;
             };
-            verifyChessMove(com.getMove(), com.getGameID(), team);
+            // load the game once so the legality worked out while verifying is reused by makeMove and gameState
+            ChessGame game = gameDAO.getGame(com.getGameID()).game();
+            verifyChessMove(com.getMove(), game, team);
             String start = (String) result.getFirst();
             String end = (String) result.getSecond();
-            var message = String.format("%s moved %s to %s!", authDAO.getAuth(com.getAuthToken()).username(), start, end);
-            broadcast(message, authDAO.getAuth(com.getAuthToken()).username(), com.getGameID());
-            ChessGame game = gameDAO.getGame(com.getGameID()).game();
+            var message = String.format("%s moved %s to %s!", username, start, end);
+            broadcast(message, username, com.getGameID());
             game.makeMove(com.getMove());
-            gameDAO.updateGame(com.getGameID(), game);
-            switch (game.gameState(game, opTeam)){
+            ChessGame.GameState state = game.gameState(game, opTeam);
+            gameDAO.appendMove(com.getGameID(), com.getMove(), game);
+            if (state.isOver()) {
+                // the result is saved with the game, which marks it finished and stops any more moves
+                game.setGameState(state);
+                gameDAO.updateGame(com.getGameID(), game);
+            }
+            switch (state){
                 case CHECK -> broadcast(String.format(opTeam.name() + "is in Check"), "", com.getGameID());
                 case CHECKMATE -> broadcast(String.format(opTeam.name() + "is in Checkmate"), "", com.getGameID());
                 case STALEMATE -> broadcast("The game is in Stalemate", "", com.getGameID());
+                case TABLEBASE_DRAW -> broadcast("The game is a draw: neither side can win", "", com.getGameID());
+                case THREEFOLD_REPETITION -> broadcast("The game is a draw by threefold repetition", "", com.getGameID());
+                case FIFTY_MOVE_RULE -> broadcast("The game is a draw by the fifty-move rule", "", com.getGameID());
             }
             connections.loadGameToEveryone(com.getGameID(), game, ServerMessage.ServerMessageType.LOAD_GAME);
         } catch (DataAccessException | IOException | InvalidMoveException ex) {
@@ -100,8 +119,10 @@ public class WebSocketHandler {
     private void resign(ResignCommand com, Session session) throws IOException, DataAccessException {
         try{
             ChessGame game = gameDAO.getGame(com.getGameID()).game();
-            if (game.getGameState().equals(ChessGame.GameState.RESIGNED)){
+            // a game already over keeps its result, whether that was a resignation, a mate or a draw
+            if (game.getGameState().isOver()){
                 connections.sendLoadGame(ServerMessage.ServerMessageType.ERROR, "ERROR", session);
+                return;
             }
             var message = String.format("%s resigns the match", authDAO.getAuth(com.getAuthToken()).username());
             JoinGameRequest.PlayerColor team = gameDAO.getTeamColor(com.getGameID(), authDAO.getAuth(com.getAuthToken()).username());
@@ -122,9 +143,8 @@ public class WebSocketHandler {
         connections.broadcast(player, notification, gameID);
     }
 
-    private void verifyChessMove(ChessMove move, int gameID, JoinGameRequest.PlayerColor team) throws DataAccessException {
-        ChessGame game = gameDAO.getGame(gameID).game();
-        if (game.getGameState().equals(ChessGame.GameState.RESIGNED)){
+    private void verifyChessMove(ChessMove move, ChessGame game, JoinGameRequest.PlayerColor team) throws DataAccessException {
+        if (game.getGameState().isOver()){
             throw new DataAccessException(500, "ERROR: No more move available.");
         }
         if (!game.moveInSet(move, game.validMoves(move.getStartPosition()))){
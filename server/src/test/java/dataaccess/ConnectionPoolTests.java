@@ -0,0 +1,113 @@
+package dataaccess;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTests {
+
+    /**
+     * Connections that only know whether they are open and whether they still answer
+     */
+    private static class FakeDatabase {
+        final List<AtomicBoolean> open = new ArrayList<>();
+        final AtomicBoolean answering = new AtomicBoolean(true);
+
+        Connection open() {
+            AtomicBoolean isOpen = new AtomicBoolean(true);
+            open.add(isOpen);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            isOpen.set(false);
+                            yield null;
+                        }
+                        case "isClosed" -> !isOpen.get();
+                        case "isValid" -> answering.get();
+                        case "getAutoCommit" -> true;
+                        case "toString" -> "FakeConnection";
+                        default -> null;
+                    });
+        }
+
+        long stillOpen() {
+            return open.stream().filter(AtomicBoolean::get).count();
+        }
+    }
+
+    @Test
+    void reusesReturnedConnections() throws SQLException {
+        FakeDatabase database = new FakeDatabase();
+        try (ConnectionPool pool = new ConnectionPool(database::open, 2, 100, 60_000, 60_000)) {
+            try (Connection first = pool.getConnection()) {
+                assertEquals(1, pool.stats().active());
+            }
+            try (Connection second = pool.getConnection()) {
+                assertFalse(second.isClosed());
+            }
+            ConnectionPool.Stats stats = pool.stats();
+            assertEquals(1, stats.created());
+            assertEquals(2, stats.borrowed());
+            assertEquals(0, stats.active());
+            assertEquals(1, stats.idle());
+        }
+        assertEquals(0, database.stillOpen());
+    }
+
+    @Test
+    void waitsNoLongerThanTheMaximum() throws SQLException {
+        FakeDatabase database = new FakeDatabase();
+        try (ConnectionPool pool = new ConnectionPool(database::open, 1, 50, 60_000, 60_000);
+             Connection held = pool.getConnection()) {
+            assertThrows(SQLException.class, pool::getConnection);
+            assertEquals(1, pool.stats().timeouts());
+            assertEquals(1, pool.stats().created());
+        }
+    }
+
+    @Test
+    void returnedLeaseCannotBeUsed() throws SQLException {
+        FakeDatabase database = new FakeDatabase();
+        try (ConnectionPool pool = new ConnectionPool(database::open, 2, 100, 60_000, 60_000)) {
+            Connection conn = pool.getConnection();
+            conn.close();
+            conn.close();
+            assertTrue(conn.isClosed());
+            assertThrows(SQLException.class, conn::createStatement);
+            // closing twice returned it once
+            assertEquals(1, pool.stats().idle());
+            assertEquals(0, pool.stats().active());
+        }
+    }
+
+    @Test
+    void retiresOldAndDeadConnections() throws SQLException, InterruptedException {
+        FakeDatabase database = new FakeDatabase();
+        try (ConnectionPool pool = new ConnectionPool(database::open, 2, 100, 60_000, 60_000)) {
+            pool.getConnection().close();
+            database.answering.set(false);
+            Thread.sleep(ConnectionPool.VALIDATE_AFTER_MILLIS + 50);
+            // the idle one fails its check, so a new one is opened in its place
+            try (Connection replaced = pool.getConnection()) {
+                assertFalse(replaced.isClosed());
+            }
+            assertEquals(2, pool.stats().created());
+            assertEquals(1, database.stillOpen());
+        }
+
+        try (ConnectionPool pool = new ConnectionPool(database::open, 2, 100, 30, 60_000)) {
+            pool.getConnection().close();
+            Thread.sleep(40);
+            pool.evictExpired();
+            assertEquals(0, pool.stats().idle());
+            assertEquals(1, pool.stats().closed());
+        }
+    }
+}
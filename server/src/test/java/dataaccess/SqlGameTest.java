@@ -1,5 +1,13 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.bitboard.Bitboard;
+import chess.bitboard.Castling;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import dataaccess.implementations.MySqlAuthDAO;
 import dataaccess.implementations.MySqlGameDAO;
 import dataaccess.implementations.MySqlUserDAO;
@@ -8,12 +16,15 @@ import dataaccess.interfaces.GameDAO;
 import dataaccess.interfaces.UserDAO;
 import exception.DataAccessException;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 import model.UserData;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import requests.JoinGameRequest;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -79,6 +90,42 @@ class SqlGameTest {
         assertNotEquals(0, actual.size());
     }
 
+    @Test
+    void listGameSummaries() throws DataAccessException {
+        int gameID = gameDao.createGame("game1");
+        gameDao.addPlayer(gameID, JoinGameRequest.PlayerColor.WHITE, "white");
+        List<GameSummary> actual = new ArrayList<>();
+        assertFalse(gameDao.listGameSummaries(GameFilter.ALL, 0, 10, actual::add));
+        assertEquals(List.of(new GameSummary(gameID, "white", null, "game1")), actual);
+    }
+
+    @Test
+    void listGameSummariesByPageAndFilter() throws DataAccessException {
+        int waiting = gameDao.createGame("waiting");
+        int full = gameDao.createGame("full");
+        int empty = gameDao.createGame("empty");
+        gameDao.addPlayer(waiting, JoinGameRequest.PlayerColor.BLACK, "white");
+        gameDao.addPlayer(full, JoinGameRequest.PlayerColor.WHITE, "white");
+        gameDao.addPlayer(full, JoinGameRequest.PlayerColor.BLACK, "black");
+        ChessGame resigned = new ChessGame();
+        resigned.setGameState(ChessGame.GameState.RESIGNED);
+        gameDao.updateGame(full, resigned);
+
+        List<Integer> page = new ArrayList<>();
+        assertTrue(gameDao.listGameSummaries(GameFilter.ALL, 0, 2, game -> page.add(game.gameID())));
+        assertFalse(gameDao.listGameSummaries(GameFilter.ALL, page.getLast(), 2, game -> page.add(game.gameID())));
+        assertEquals(List.of(waiting, full, empty), page);
+
+        List<Integer> open = new ArrayList<>();
+        gameDao.listGameSummaries(new GameFilter(true, null, null), 0, 10, game -> open.add(game.gameID()));
+        assertEquals(List.of(waiting, empty), open);
+
+        List<Integer> players = new ArrayList<>();
+        gameDao.listGameSummaries(new GameFilter(false, "white", GameFilter.Status.ACTIVE), 0, 10,
+                game -> players.add(game.gameID()));
+        assertEquals(List.of(waiting), players);
+    }
+
     @Test
     void successOnlyGames() throws DataAccessException {
         gameDao.createGame("newGame");
@@ -120,6 +167,66 @@ class SqlGameTest {
         assertThrows(DataAccessException.class, () -> gameDao.addPlayer(gameID, createRequest.getPlayerColor(), newUser.username()));
     }
 
+    @Test
+    void updateGameKeepsTheGame() throws DataAccessException, InvalidMoveException {
+        int gameID = gameDao.createGame("newGame");
+        ChessGame game = gameDao.getGame(gameID).game();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        ChessGame stored = gameDao.updateGame(gameID, game);
+        assertEquals(game.getPositionKey(), stored.getPositionKey());
+        assertEquals(1, stored.getRound());
+    }
+
+    @Test
+    void appendedMovesAreReplayed() throws DataAccessException, InvalidMoveException {
+        int gameID = gameDao.createGame("newGame");
+        ChessGame game = gameDao.getGame(gameID).game();
+        int[][] shuffle = {{1, 7, 3, 6}, {8, 7, 6, 6}, {3, 6, 1, 7}, {6, 6, 8, 7}};
+        // enough moves to pass a snapshot and carry on past it
+        for (int i = 0; i < 21; i++) {
+            int[] m = shuffle[i % 4];
+            ChessMove move = new ChessMove(ChessPosition.of(m[0], m[1]), ChessPosition.of(m[2], m[3]), null);
+            game.makeMove(move);
+            gameDao.appendMove(gameID, move, game);
+            assertEquals(game.getPositionKey(), gameDao.getGame(gameID).game().getPositionKey());
+        }
+        assertEquals(21, gameDao.getGame(gameID).game().getRound());
+        assertThrows(DataAccessException.class, () -> gameDao.appendMove(gameID,
+                new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null), game));
+    }
+
+    @Test
+    void readsGamesStoredAsJson() throws DataAccessException, SQLException, InvalidMoveException {
+        int gameID = gameDao.createGame("newGame");
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        try (var conn = DatabaseManager.getConnection();
+             var ps = conn.prepareStatement("UPDATE games SET chessgame=? WHERE gameid=?")) {
+            ps.setString(1, new Gson().toJson(game));
+            ps.setInt(2, gameID);
+            ps.executeUpdate();
+        }
+        assertEquals(game.getPositionKey(), gameDao.getGame(gameID).game().getPositionKey());
+    }
+
+    @Test
+    void jsonFromBeforeCastlingKeepsLostRightsLost() throws DataAccessException, SQLException, InvalidMoveException {
+        int gameID = gameDao.createGame("newGame");
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 5), null));
+        JsonObject json = new Gson().toJsonTree(game).getAsJsonObject();
+        json.remove("castlingRights");
+        try (var conn = DatabaseManager.getConnection();
+             var ps = conn.prepareStatement("UPDATE games SET chessgame=? WHERE gameid=?")) {
+            ps.setString(1, json.toString());
+            ps.setInt(2, gameID);
+            ps.executeUpdate();
+        }
+        assertEquals(Castling.of(Bitboard.BLACK), gameDao.getGame(gameID).game().getCastlingRights());
+    }
+
     @Test
     void testClear() throws DataAccessException{
         gameDao.createGame("newGame");
@@ -0,0 +1,99 @@
+package service;
+
+import dataaccess.implementations.MemoryAuthDAO;
+import dataaccess.implementations.MemoryGameDAO;
+import dataaccess.implementations.MemoryUserDAO;
+import exception.DataAccessException;
+import model.AnalysisData;
+import model.AuthData;
+import model.UserData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisServiceTests {
+    private MemoryGameDAO gameDao;
+    private MemoryAuthDAO authDao;
+    private AnalysisService analysisService;
+    private String authToken;
+    private int gameID;
+
+    @BeforeEach
+    void setup() throws DataAccessException {
+        gameDao = new MemoryGameDAO();
+        authDao = new MemoryAuthDAO();
+        UserService userService = new UserService(new MemoryUserDAO(), authDao);
+        AuthData auth = userService.registerUser(new UserData("analyst", "password", "a@mail.com"));
+        authToken = auth.authToken();
+        gameID = new GameService(gameDao, authDao).createGame("analysis", authToken);
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (analysisService != null) {
+            analysisService.shutdown();
+        }
+    }
+
+    @Test
+    void analyzesStartingPosition() throws DataAccessException {
+        analysisService = new AnalysisService(gameDao, authDao, 1, 5000, 1);
+        AnalysisData analysis = analysisService.analyze(gameID, 4, authToken);
+        assertEquals(gameID, analysis.gameID());
+        assertEquals(4, analysis.depth());
+        assertNotNull(analysis.bestMove());
+        assertEquals(analysis.bestMove(), analysis.principalVariation().getFirst());
+        assertTrue(analysis.nodes() > 0);
+    }
+
+    @Test
+    void rejectsBadRequests() {
+        analysisService = new AnalysisService(gameDao, authDao, 1, 5000, 1);
+        DataAccessException ex = assertThrows(DataAccessException.class, () -> analysisService.analyze(gameID, 4, "bad"));
+        assertEquals(401, ex.statusCode());
+        ex = assertThrows(DataAccessException.class, () -> analysisService.analyze(gameID, 0, authToken));
+        assertEquals(400, ex.statusCode());
+        ex = assertThrows(DataAccessException.class, () -> analysisService.analyze(gameID + 1, 4, authToken));
+        assertEquals(404, ex.statusCode());
+    }
+
+    @Test
+    void deadlineStopsADeepSearch() throws DataAccessException {
+        analysisService = new AnalysisService(gameDao, authDao, 1, 300, 1);
+        long start = System.nanoTime();
+        AnalysisData analysis = analysisService.analyze(gameID, AnalysisService.MAX_DEPTH, authToken);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertNotNull(analysis.bestMove());
+        assertTrue(analysis.depth() < AnalysisService.MAX_DEPTH);
+        assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void busyWorkersTurnRequestsAwayAtOnce() throws InterruptedException, DataAccessException {
+        analysisService = new AnalysisService(gameDao, authDao, 1, 1500, 1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread busy = new Thread(() -> {
+            try {
+                analysisService.analyze(gameID, AnalysisService.MAX_DEPTH, authToken);
+            } catch (DataAccessException ex) {
+                failure.set(ex);
+            }
+        });
+        busy.start();
+        Thread.sleep(100);
+        // the only worker is taken, so this is refused without waiting for it
+        long start = System.nanoTime();
+        DataAccessException ex = assertThrows(DataAccessException.class,
+                () -> analysisService.analyze(gameID, AnalysisService.MAX_DEPTH, authToken));
+        assertEquals(503, ex.statusCode());
+        assertTrue(System.nanoTime() - start < 100_000_000L);
+        busy.join();
+        assertNull(failure.get());
+        // and the worker is free again once the first request is answered
+        assertNotNull(analysisService.analyze(gameID, 2, authToken).bestMove());
+    }
+}
@@ -1,5 +1,6 @@
 package service;
 
+import chess.ChessGame;
 import dataaccess.implementations.MemoryAuthDAO;
 import dataaccess.implementations.MemoryGameDAO;
 import dataaccess.implementations.MemoryUserDAO;
@@ -180,11 +181,72 @@ class MemoryServiceTests {
     void failListGames() throws DataAccessException {
         AuthData auth = userService.registerUser(existingUser);
         gameService.createGame("newGame", auth.authToken());
-        DataAccessException ex = assertThrows(DataAccessException.class,() -> gameService.listGames("123"));
+        DataAccessException ex = assertThrows(DataAccessException.class,() ->
+                gameService.listGames("123", GameFilter.ALL, 0, null));
         assertEquals(401, ex.statusCode());
         assertEquals("Error: unauthorized", ex.getMessage());
     }
 
+    @Test
+    void listGamesShowsPlayers() throws DataAccessException {
+        AuthData auth = userService.registerUser(existingUser);
+        int gameID = gameService.createGame("game1", auth.authToken());
+        gameService.joinGame(new JoinGameRequest(JoinGameRequest.PlayerColor.BLACK, gameID), auth.authToken());
+        var actual = gameService.listGames(auth.authToken(), GameFilter.ALL, 0, null);
+        assertEquals(List.of(new GameSummary(gameID, null, existingUser.username(), "game1")), actual.games());
+        assertNull(actual.nextCursor());
+    }
+
+    @Test
+    void listGamesInPages() throws DataAccessException {
+        AuthData auth = userService.registerUser(existingUser);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(gameService.createGame("game" + i, auth.authToken()));
+        }
+        List<Integer> actual = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            GamePage page = gameService.listGames(auth.authToken(), GameFilter.ALL, 2, cursor);
+            assertEquals(2, page.pageSize());
+            page.games().forEach(game -> actual.add(game.gameID()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+        assertIterableEquals(expected, actual);
+        assertEquals(3, pages);
+        assertEquals(GameService.DEFAULT_PAGE_SIZE, gameService.listGames(auth.authToken(), GameFilter.ALL, 0, null).pageSize());
+        assertEquals(GameService.MAX_PAGE_SIZE, gameService.listGames(auth.authToken(), GameFilter.ALL, 1000, null).pageSize());
+
+        DataAccessException ex = assertThrows(DataAccessException.class,() ->
+                gameService.listGames(auth.authToken(), GameFilter.ALL, 2, "not a cursor"));
+        assertEquals(400, ex.statusCode());
+    }
+
+    @Test
+    void listGamesFiltered() throws DataAccessException {
+        AuthData auth = userService.registerUser(existingUser);
+        AuthData other = userService.registerUser(newUser);
+        int waiting = gameService.createGame("waiting", auth.authToken());
+        int full = gameService.createGame("full", auth.authToken());
+        int empty = gameService.createGame("empty", auth.authToken());
+        gameService.joinGame(new JoinGameRequest(JoinGameRequest.PlayerColor.WHITE, waiting), auth.authToken());
+        gameService.joinGame(new JoinGameRequest(JoinGameRequest.PlayerColor.WHITE, full), auth.authToken());
+        gameService.joinGame(new JoinGameRequest(JoinGameRequest.PlayerColor.BLACK, full), other.authToken());
+        gameDao.getGame(full).game().setGameState(ChessGame.GameState.RESIGNED);
+
+        assertEquals(List.of(waiting, empty), ids(auth, new GameFilter(true, null, null)));
+        assertEquals(List.of(waiting, full), ids(auth, new GameFilter(false, existingUser.username(), null)));
+        assertEquals(List.of(waiting), ids(auth, new GameFilter(true, existingUser.username(), null)));
+        assertEquals(List.of(full), ids(auth, new GameFilter(false, newUser.username(), GameFilter.Status.FINISHED)));
+        assertEquals(List.of(waiting, empty), ids(auth, new GameFilter(false, null, GameFilter.Status.ACTIVE)));
+    }
+
+    private static List<Integer> ids(AuthData auth, GameFilter filter) throws DataAccessException {
+        return gameService.listGames(auth.authToken(), filter, 0, null).games().stream().map(GameSummary::gameID).toList();
+    }
+
     @Test
     void clearGameService() throws DataAccessException{
         AuthData auth = userService.registerUser(existingUser);
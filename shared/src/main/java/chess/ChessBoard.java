@@ -1,9 +1,10 @@
 package chess;
 
+import chess.bitboard.Bitboard;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -13,6 +14,10 @@ import java.util.Objects;
  */
 public class ChessBoard {
     private ChessPiece[][] squares = new ChessPiece[8][8];
+    // bitboard mirror of squares, rebuilt whenever squares gets swapped out underneath it (e.g. by Gson)
+    private transient Bitboard bits = new Bitboard();
+    private transient ChessPiece[][] indexed = squares;
+
     public ChessBoard() {
     }
 
@@ -20,6 +25,30 @@ public class ChessBoard {
         this.squares = squares;
     }
 
+    private ChessBoard(ChessPiece[][] squares, Bitboard bits) {
+        this.squares = squares;
+        this.bits = bits;
+        this.indexed = squares;
+    }
+
+    /**
+     * @return the bitboard representation of this board
+     */
+    public Bitboard getBitboard() {
+        if (indexed != squares) {
+            bits = new Bitboard();
+            for (int i = 0; i < 8; i++) {
+                for (int j = 0; j < 8; j++) {
+                    if (squares[i][j] != null) {
+                        bits.put((7 - i) * 8 + j, Bitboard.piece(squares[i][j]));
+                    }
+                }
+            }
+            indexed = squares;
+        }
+        return bits;
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -27,23 +56,28 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
+        Bitboard bits = getBitboard();
         squares[position.getRow()][position.getColumn()] = piece;
+        if (piece == null) {
+            bits.remove(Bitboard.square(position));
+        } else {
+            bits.put(Bitboard.square(position), Bitboard.piece(piece));
+        }
     }
 
     public void removePiece(ChessPosition position) {
+        Bitboard bits = getBitboard();
         squares[position.getRow()][position.getColumn()] = null;
+        bits.remove(Bitboard.square(position));
     }
 
     public Collection<ChessPosition> getNumberOfPieces(ChessGame.TeamColor teamColor) {
-    Collection<ChessPosition> positions = new ArrayList<>();
-        for (int i = 0; i < 7; i++) {
-            for (int j = 0; j < 7; j++) {
-                if (squares[i][j] != null) {
-                    if (squares[i][j].getTeamColor() == teamColor) {
-                        positions.add(new ChessPosition(8-i, 1+j));
-                    }
-                }
-            }
+        Collection<ChessPosition> positions = new ArrayList<>();
+        // walk the set bits of the team's occupancy mask instead of all 64 squares
+        long occupancy = getBitboard().occupancy(Bitboard.color(teamColor));
+        while (occupancy != 0) {
+            positions.add(Bitboard.position(Long.numberOfTrailingZeros(occupancy)));
+            occupancy &= occupancy - 1;
         }
         return positions;
     }
@@ -51,11 +85,9 @@ public class ChessBoard {
     public ChessBoard getBoardCopy(){
         ChessPiece[][] copy = new ChessPiece[8][8];
         for (int i = 0; i < squares.length; i++) {
-            for (int j = 0; j < squares[i].length; j++) {
-                copy[i][j] = squares[i][j];
-            }
+            System.arraycopy(squares[i], 0, copy[i], 0, squares[i].length);
         }
-        return new ChessBoard(copy);
+        return new ChessBoard(copy, new Bitboard(getBitboard()));
     }
 
     /**
@@ -70,16 +102,11 @@ public class ChessBoard {
     }
 
     public ChessPosition getKingPos(ChessGame.TeamColor teamColor) {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if (squares[i][j] != null){
-                    if (squares[i][j].getTeamColor() == teamColor && squares[i][j].getPieceType() == ChessPiece.PieceType.KING) {
-                        return new ChessPosition(8-i, 1+j);
-                    }
-                }
-            }
+        int king = getBitboard().kingSquare(Bitboard.color(teamColor));
+        if (king == Bitboard.EMPTY) {
+            return null;
         }
-        return null;
+        return Bitboard.position(king);
     }
 
     @Override
@@ -91,12 +118,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return getBitboard().equals(that.getBitboard());
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return getBitboard().hashCode();
     }
 
     @Override
@@ -116,30 +143,31 @@ public class ChessBoard {
                 squares[i][j] = null;
             }
         }
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        getBitboard().clear();
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
         for (int i = 1; i < 9; i++) {
-            ChessPosition pos = new ChessPosition(7, i);
-            addPiece(pos, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            ChessPosition pos = ChessPosition.of(7, i);
+            addPiece(pos, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         for (int i = 1; i < 9; i++) {
-            ChessPosition pos = new ChessPosition(2, i);
-            addPiece(pos, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            ChessPosition pos = ChessPosition.of(2, i);
+            addPiece(pos, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
     }
 }
@@ -1,7 +1,14 @@
 package chess;
 
+import chess.bitboard.Attacks;
+import chess.bitboard.Bitboard;
+import chess.bitboard.Castling;
+import chess.bitboard.Move;
+import chess.bitboard.Zobrist;
+import chess.engine.Tablebase;
+
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -10,10 +17,24 @@ import java.util.Iterator;
  * signature of the existing methods.
  */
 public class ChessGame {
+    // shared by every game, since it only ever answers questions about positions
+    private static volatile Tablebase tablebase;
+
     private int round = 0;
     private TeamColor teamTurn = TeamColor.WHITE;
     private ChessBoard board = new ChessBoard();
     private GameState gameState = GameState.NORMAL;
+    // keys of the positions played since the last capture or pawn move, oldest first; none before it can come up again
+    private long[] history = new long[8];
+    private int historyLength = 0;
+    // plies since the last capture or pawn move
+    private int halfmoveClock = 0;
+    // castling bits; games saved before castling was played start with every right, which only matters while kings and rooks are home
+    private int castlingRights = Castling.ALL;
+    // file (0-7) of a pawn that just moved two squares, or -1
+    private int enPassantFile = -1;
+    // legal moves and check status for the current position, thrown away as soon as the board changes
+    private transient LegalityCache legality = new LegalityCache();
 
     public ChessGame() {
         board.resetBoard();
@@ -57,24 +78,9 @@ public class ChessGame {
         if (piece == null) {
             return null;
         }
-        // get moveset of the piece in question
-        var moveSet = piece.pieceMoves(board, startPosition);
-        // iterate through moves to see if they are valid
-        Iterator<ChessMove> iterator = moveSet.iterator();
-        while (iterator.hasNext()) {
-            ChessMove move = iterator.next();
-            // create copy instance of the game so that nothing saves to the real game
-            ChessBoard copy = board.getBoardCopy();
-            copy.addPiece(move.getEndPosition(), piece);
-            copy.removePiece(move.getStartPosition());
-            ChessGame copyGame = new ChessGame();
-            copyGame.setBoard(copy);
-            // if that move puts their king in check in the game copy then remove the move from the moveset
-            if (copyGame.isInCheck(piece.getTeamColor())) {
-                iterator.remove();
-            }
-        }
-        return moveSet;
+        // pick this piece's moves out of the team's cached legal moves
+        return legality.legalMoves(board.getBitboard(), Bitboard.color(piece.getTeamColor()),
+                castlingRights, getEnPassantSquare(), Bitboard.square(startPosition));
     }
 
 
@@ -97,61 +103,137 @@ public class ChessGame {
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
         // check if move is in the collection from validmoves or it is that team's turn otherwise throws exception
-        if (board.getPiece(move.getStartPosition()) != null) {
-            // checks if the move in question is in the valid move set and if that is the piece's turn
-            if (moveInSet(move, validMoves(move.getStartPosition())) &&
-                    board.getPiece(move.getStartPosition()).getTeamColor() == teamTurn) {
-                board.addPiece(move.getEndPosition(), board.getPiece(move.getStartPosition()));
-                // checks if the piece is going to be promoted or not for a pawn
-                if (move.getPromotionPiece() != null) {
-                    board.addPiece(move.getEndPosition(),
-                    new ChessPiece(board.getPiece(move.getStartPosition()).getTeamColor(), move.getPromotionPiece()));
-                }
-                board.removePiece(move.getStartPosition());
-            } else {
-                throw new InvalidMoveException();
-            }
-            this.round++;
-            // sets whose turn is next depending on the round
-            if (this.round % 2 == 0) {
-                setTeamTurn(TeamColor.WHITE);
-            } else {
-                setTeamTurn(TeamColor.BLACK);
-            }
-        } else {
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) {
             throw new InvalidMoveException();
         }
+        // checks if the move in question is in the valid move set and if that is the piece's turn
+        if (piece.getTeamColor() != teamTurn
+                || !legality.isLegal(board.getBitboard(), Bitboard.color(teamTurn),
+                castlingRights, getEnPassantSquare(), move)) {
+            throw new InvalidMoveException();
+        }
+        makeMove(move, new MoveUndo());
     }
 
-    public boolean kingGettingAttacked(TeamColor team) {
-        ChessPosition kingPos = board.getKingPos(team);
-        // loop through every piece on the board and find the opposite teams pieces
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                // make a fake piece to test it on the fake board
-                if (fakeBoardCheck(i, j, team, kingPos) == 1){
-                    return true;
-                }
+    /**
+     * Plays a move on this game's board in place without checking that it is legal,
+     * recording what it changed so {@link #unmakeMove(MoveUndo)} can restore it
+     *
+     * @param move chess move to play
+     * @param undo record to fill in, overwriting whatever it held
+     */
+    public void makeMove(ChessMove move, MoveUndo undo) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        ChessPiece piece = board.getPiece(start);
+        int from = Bitboard.square(start);
+        int to = Bitboard.square(end);
+        boolean pawn = piece.getPieceType() == ChessPiece.PieceType.PAWN;
+        // a pawn going sideways onto an empty square is taking en passant, the pawn it takes being beside it
+        ChessPosition captured = pawn && (from & 7) != (to & 7) && board.getPiece(end) == null
+                ? Bitboard.position((from & 56) | (to & 7)) : end;
+        undo.move = move;
+        undo.movedPiece = piece;
+        undo.capturedPiece = board.getPiece(captured);
+        undo.capturedPosition = captured;
+        undo.teamTurn = teamTurn;
+        undo.round = round;
+        undo.gameState = gameState;
+        undo.history = history;
+        undo.historyLength = historyLength;
+        undo.halfmoveClock = halfmoveClock;
+        undo.castlingRights = castlingRights;
+        undo.enPassantFile = enPassantFile;
+
+        int rights = Castling.afterMove(castlingRights, from, to);
+        if (undo.capturedPiece != null || pawn || rights != castlingRights) {
+            // the old stack is left as it was for unmakeMove to put back
+            history = new long[history.length];
+            historyLength = 0;
+        } else {
+            if (historyLength == history.length) {
+                history = Arrays.copyOf(history, historyLength * 2);
             }
+            history[historyLength++] = repetitionKey();
         }
-        return false;
+        halfmoveClock = undo.capturedPiece != null || pawn ? 0 : halfmoveClock + 1;
+        castlingRights = rights;
+        enPassantFile = pawn && Math.abs(to - from) == 16 ? to & 7 : -1;
+
+        board.removePiece(start);
+        board.removePiece(captured);
+        // checks if the piece is going to be promoted or not for a pawn
+        if (move.getPromotionPiece() != null) {
+            board.addPiece(end, ChessPiece.of(piece.getTeamColor(), move.getPromotionPiece()));
+        } else {
+            board.addPiece(end, piece);
+        }
+        if (isCastle(piece, start, end)) {
+            ChessPosition rookFrom = Bitboard.position(Move.castlingRookFrom(to));
+            board.addPiece(Bitboard.position(Move.castlingRookTo(to)), board.getPiece(rookFrom));
+            board.removePiece(rookFrom);
+        }
+        this.round++;
+        setTeamTurn(piece.getTeamColor() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
     }
 
-    private int fakeBoardCheck(int i, int j, TeamColor team, ChessPosition kingPos) {
-        ChessPiece queryPiece = board.getPiece(new ChessPosition(8 - i, j + 1));
-        if (queryPiece != null) {
-            if (queryPiece.getTeamColor() != team) {
-                // loop through their moveset and see if the king's position is in their getEndposition
-                var moveSet = queryPiece.pieceMoves(board, new ChessPosition(8 - i, j + 1));
-                for (ChessMove item : moveSet) {
-                    // if getEndPosition() is == to king position then return true
-                    if (item.getEndPosition().equals(kingPos)) {
-                        return 1;
-                    }
-                }
-            }
+    /**
+     * Takes back a move made with {@link #makeMove(ChessMove, MoveUndo)}, restoring
+     * the board, turn, round and state exactly as they were before it
+     *
+     * @param undo the record filled in when the move was made
+     */
+    public void unmakeMove(MoveUndo undo) {
+        ChessMove move = undo.move;
+        ChessPosition end = move.getEndPosition();
+        board.removePiece(end);
+        board.addPiece(move.getStartPosition(), undo.movedPiece);
+        if (undo.capturedPiece != null) {
+            board.addPiece(undo.capturedPosition, undo.capturedPiece);
+        }
+        if (isCastle(undo.movedPiece, move.getStartPosition(), end)) {
+            ChessPosition rookTo = Bitboard.position(Move.castlingRookTo(Bitboard.square(end)));
+            board.addPiece(Bitboard.position(Move.castlingRookFrom(Bitboard.square(end))), board.getPiece(rookTo));
+            board.removePiece(rookTo);
         }
-        return 0;
+        this.round = undo.round;
+        this.teamTurn = undo.teamTurn;
+        this.gameState = undo.gameState;
+        this.history = undo.history;
+        this.historyLength = undo.historyLength;
+        this.halfmoveClock = undo.halfmoveClock;
+        this.castlingRights = undo.castlingRights;
+        this.enPassantFile = undo.enPassantFile;
+    }
+
+    /**
+     * A king moving two squares is castling, which is the only way it can
+     */
+    private static boolean isCastle(ChessPiece piece, ChessPosition start, ChessPosition end) {
+        return piece.getPieceType() == ChessPiece.PieceType.KING
+                && Math.abs(end.getColumn() - start.getColumn()) == 2;
+    }
+
+    public boolean kingGettingAttacked(TeamColor team) {
+        // the king's bitboard is kept up to date by every addPiece and removePiece, so no scan is needed
+        Bitboard bits = board.getBitboard();
+        int king = bits.kingSquare(Bitboard.color(team));
+        if (king == Bitboard.EMPTY) {
+            return false;
+        }
+        return Attacks.isSquareAttacked(bits, king, Bitboard.color(team) ^ 1);
+    }
+
+    /**
+     * Determines if any piece of the given team could capture on a square
+     *
+     * @param square  the square in question
+     * @param byColor the team doing the attacking
+     * @return True if byColor attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition square, TeamColor byColor) {
+        return Attacks.isSquareAttacked(board.getBitboard(), Bitboard.square(square), Bitboard.color(byColor));
     }
 
     public enum GameState {
@@ -159,7 +241,39 @@ public class ChessGame {
         CHECK,
         CHECKMATE,
         STALEMATE,
-        RESIGNED;
+        RESIGNED,
+        // neither side can win with best play, according to the tablebase
+        TABLEBASE_DRAW,
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE;
+
+        /**
+         * @return True for the draws that end the game the moment they happen,
+         * which are kept as the game's state so no more moves are taken
+         */
+        public boolean endsInDraw() {
+            return this == TABLEBASE_DRAW || this == THREEFOLD_REPETITION || this == FIFTY_MOVE_RULE;
+        }
+
+        /**
+         * @return True once no more moves can be played
+         */
+        public boolean isOver() {
+            return this == CHECKMATE || this == STALEMATE || this == RESIGNED || endsInDraw();
+        }
+    }
+
+    /**
+     * Sets the tablebase {@link #gameState} uses to recognize drawn endings
+     *
+     * @param tablebase the tablebase to probe, or null for none
+     */
+    public static void setTablebase(Tablebase tablebase) {
+        ChessGame.tablebase = tablebase;
+    }
+
+    public static Tablebase getTablebase() {
+        return tablebase;
     }
 
     public GameState getGameState() {
@@ -171,16 +285,164 @@ public class ChessGame {
     }
 
     public GameState gameState(ChessGame hypoGame, TeamColor team) {
-        if (hypoGame.isInCheck(team)){
-            if (hypoGame.isInCheckmate(team)){
-                return GameState.CHECKMATE;
-            }
-            return GameState.CHECK;
+        boolean inCheck = hypoGame.isInCheck(team);
+        if (inCheck && hypoGame.isInCheckmate(team)){
+            return GameState.CHECKMATE;
         }
-        if (hypoGame.isInStalemate(team)){
+        if (!inCheck && hypoGame.isInStalemate(team)){
             return GameState.STALEMATE;
         }
-        return GameState.NORMAL;
+        if (hypoGame.isThreefoldRepetition()){
+            return GameState.THREEFOLD_REPETITION;
+        }
+        if (hypoGame.isFiftyMoveRule()){
+            return GameState.FIFTY_MOVE_RULE;
+        }
+        if (hypoGame.isTablebaseDraw(team)){
+            return GameState.TABLEBASE_DRAW;
+        }
+        return inCheck ? GameState.CHECK : GameState.NORMAL;
+    }
+
+    /**
+     * Determines if the current position has come up three times with the same
+     * team to move. Only the positions since the last capture or pawn move are
+     * kept, so this looks at no more than the halfmove clock's worth of them.
+     *
+     * @return True if the position is a threefold repetition
+     */
+    public boolean isThreefoldRepetition() {
+        long key = repetitionKey();
+        int seen = 1;
+        // every other position had the other team to move, so it cannot match
+        for (int i = historyLength - 2; i >= 0; i -= 2) {
+            if (history[i] == key && ++seen == 3) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if fifty moves by each team have gone by without a capture or pawn move
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * @return plies played since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Sets the halfmove clock, for a game set up in the middle of play
+     *
+     * @param halfmoveClock plies played since the last capture or pawn move
+     */
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * @return moves played so far by both teams
+     */
+    public int getRound() {
+        return round;
+    }
+
+    public void setRound(int round) {
+        this.round = round;
+    }
+
+    long[] getHistory() {
+        return history;
+    }
+
+    int getHistoryLength() {
+        return historyLength;
+    }
+
+    /**
+     * Replaces the repetition history, for a game read back from storage
+     *
+     * @param history keys of the positions since the last irreversible move, oldest first
+     * @param length  how many of them are in use
+     */
+    void setHistory(long[] history, int length) {
+        this.history = history;
+        this.historyLength = length;
+    }
+
+    /**
+     * @return the {@link Castling} rights both teams still have
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Sets the castling rights, for a game set up in the middle of play
+     *
+     * @param castlingRights {@link Castling} bits
+     */
+    public void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * @return the square a pawn that just moved two squares passed over, as a
+     * {@link Bitboard} square, or {@link Bitboard#EMPTY} if the last move was not one
+     */
+    public int getEnPassantSquare() {
+        if (enPassantFile < 0) {
+            return Bitboard.EMPTY;
+        }
+        // the pawn belongs to the team that just moved
+        return (teamTurn == TeamColor.WHITE ? 40 : 16) + enPassantFile;
+    }
+
+    /**
+     * Sets the en passant square, for a game set up in the middle of play
+     *
+     * @param square a {@link Bitboard} square, or {@link Bitboard#EMPTY} for none
+     */
+    public void setEnPassantSquare(int square) {
+        this.enPassantFile = square == Bitboard.EMPTY ? -1 : square & 7;
+    }
+
+    /**
+     * The pieces, the team to move, castling rights and en passant square,
+     * without the game state, since a position repeats no matter what the
+     * state was
+     */
+    private long repetitionKey() {
+        Bitboard bits = board.getBitboard();
+        int side = Bitboard.color(teamTurn);
+        long key = bits.key() ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(bits, getEnPassantSquare(), side);
+        return teamTurn == TeamColor.BLACK ? key ^ Zobrist.side() : key;
+    }
+
+    /**
+     * Looks the position up in the tablebase, which is instant where searching
+     * for a way to win could take as long as the ending lasts
+     *
+     * @param team the team to move
+     * @return True if a tablebase is set and it says neither side can win
+     */
+    private boolean isTablebaseDraw(TeamColor team) {
+        Tablebase current = tablebase;
+        if (current == null) {
+            return false;
+        }
+        Bitboard bits = board.getBitboard();
+        if (Long.bitCount(bits.occupied()) > current.maxPieces()) {
+            return false;
+        }
+        Tablebase.Probe probe = current.probe(bits, Bitboard.color(team));
+        return probe != null && probe.result() == Tablebase.Result.DRAW;
     }
 
     /**
@@ -190,8 +452,8 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        // if kingGettingAttacked() then return true
-        return kingGettingAttacked(teamColor);
+        // remembered until the board changes, since gameState and checkmate checks ask repeatedly
+        return legality.inCheck(board.getBitboard(), Bitboard.color(teamColor), castlingRights, getEnPassantSquare());
     }
 
     /**
@@ -210,20 +472,9 @@ public class ChessGame {
     }
 
     private boolean checkPositions(TeamColor teamColor) {
-        int count = 0;
-        Collection<ChessPosition> positions = board.getNumberOfPieces(teamColor);
-        for (ChessPosition pos : positions) {
-            // counting how many of the pieces have an empty valid moveset
-            if (validMoves(pos).isEmpty()) {
-                count++;
-            }
-        }
-        // if all the pieces have nothing in the valid moveset -> the team is in checkmate
-        if (count == positions.size()) {
-            return true;
-        } else {
-            return false;
-        }
+        // if none of the team's pieces has a legal move -> the team is in checkmate or stalemate
+        return !legality.hasLegalMove(board.getBitboard(), Bitboard.color(teamColor),
+                castlingRights, getEnPassantSquare());
     }
 
     /**
@@ -249,6 +500,12 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        // positions from the old board say nothing about repetitions on the new one
+        this.historyLength = 0;
+        this.halfmoveClock = 0;
+        // nothing is known about earlier moves, so every king and rook still at home may castle
+        this.castlingRights = Castling.fromBoard(board.getBitboard());
+        this.enPassantFile = -1;
     }
 
     /**
@@ -260,6 +517,18 @@ public class ChessGame {
         return board;
     }
 
+    /**
+     * Gets a 64-bit Zobrist key identifying the current position: the pieces on
+     * the board, whose turn it is, castling rights, en passant square and the
+     * game state. The board keeps its part up to date on every piece added or
+     * removed, so this costs a few XORs.
+     *
+     * @return the position key
+     */
+    public long getPositionKey() {
+        return repetitionKey() ^ Zobrist.state(gameState.ordinal());
+    }
+
     @Override
     public String toString() {
         return "ChessGame{}";
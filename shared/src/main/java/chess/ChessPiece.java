@@ -1,10 +1,15 @@
 package chess;
 
 import chess.piececalculator.*;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.JsonAdapter;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * Represents a single chess piece
@@ -12,15 +17,34 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPiece.Deserializer.class)
 public class ChessPiece {
+    // one shared instance per color and type
+    private static final ChessPiece[][] PIECES = new ChessPiece[2][6];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal()][type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor color;
-    private PieceType t;
+    private final PieceType t;
 
     public ChessPiece(ChessGame.TeamColor pieceColor, PieceType type) {
         color = pieceColor;
         t = type;
     }
 
+    /**
+     * @return the shared piece of the given color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal()][type.ordinal()];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -101,6 +125,19 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(color, t);
+        return color.ordinal() * 6 + t.ordinal();
+    }
+
+    /**
+     * Reads the stored color and type fields back into the shared piece
+     */
+    static class Deserializer implements JsonDeserializer<ChessPiece> {
+        @Override
+        public ChessPiece deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+            JsonObject object = json.getAsJsonObject();
+            ChessGame.TeamColor color = ChessGame.TeamColor.valueOf(object.get("color").getAsString());
+            PieceType type = PieceType.valueOf(object.get("t").getAsString());
+            return of(color, type);
+        }
     }
 }
@@ -1,6 +1,12 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.lang.reflect.Type;
 
 /**
  * Represents a single square position on a chess board
@@ -8,7 +14,16 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPosition.Deserializer.class)
 public class ChessPosition {
+    // one shared instance per square, indexed (row - 1) * 8 + (col - 1)
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            SQUARES[i] = new ChessPosition(i / 8 + 1, i % 8 + 1);
+        }
+    }
 
     private final int row;
     private final int column;
@@ -18,6 +33,21 @@ public class ChessPosition {
         this.column = col-1;
     }
 
+    /**
+     * Looks up the shared position for a square, so callers on hot paths do not allocate.
+     * Squares off the board (which move rules probe before checking bounds) get a fresh instance.
+     *
+     * @param row 1 codes for the bottom row
+     * @param col 1 codes for the left column
+     * @return the position for that square
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -48,7 +78,7 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        return row * 8 + column;
     }
 
     @Override
@@ -58,4 +88,17 @@ public class ChessPosition {
                 ", column=" + column +
                 '}';
     }
+
+    /**
+     * Reads the stored row and column fields back into the shared instance for that square
+     */
+    static class Deserializer implements JsonDeserializer<ChessPosition> {
+        @Override
+        public ChessPosition deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+            JsonObject object = json.getAsJsonObject();
+            int row = object.has("row") ? object.get("row").getAsInt() : 0;
+            int column = object.has("column") ? object.get("column").getAsInt() : 0;
+            return of(8 - row, column + 1);
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package chess;
+
+import chess.bitboard.Bitboard;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Packs a {@link ChessGame} into a few dozen bytes for storage, in place of
+ * its JSON form with 64 mostly-null squares.
+ * <p>
+ * Layout, in order:
+ * <ul>
+ *     <li>a format byte, {@link #FORMAT}, which no JSON text starts with</li>
+ *     <li>one byte with the team to move in bit 0 and the game state above it</li>
+ *     <li>one byte with the castling rights in the low four bits and the en passant file plus one above them</li>
+ *     <li>the round and the halfmove clock as varints</li>
+ *     <li>the occupied squares as a 64-bit mask, then one nibble per occupied square, lowest first,
+ *     holding its {@link Bitboard} piece</li>
+ *     <li>a varint count of the repetition history, then each key as 8 bytes</li>
+ * </ul>
+ * The starting position comes to 30 bytes. The history only holds the
+ * positions since the last capture, pawn move or change of castling rights,
+ * so it is usually empty or short.
+ */
+public final class GameCodec {
+    /**
+     * First byte of every encoded game
+     */
+    public static final byte FORMAT = (byte) 0xC1;
+
+    private GameCodec() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated.");
+    }
+
+    /**
+     * @return the game packed into bytes
+     */
+    public static byte[] encode(ChessGame game) {
+        Bitboard board = game.getBoard().getBitboard();
+        long occupied = board.occupied();
+        long[] history = game.getHistory();
+        int historyLength = game.getHistoryLength();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + historyLength * 8);
+
+        out.write(FORMAT);
+        out.write(Bitboard.color(game.getTeamTurn()) | game.getGameState().ordinal() << 1);
+        int enPassant = game.getEnPassantSquare();
+        out.write(game.getCastlingRights() | (enPassant == Bitboard.EMPTY ? 0 : (enPassant & 7) + 1) << 4);
+        writeVarint(out, game.getRound());
+        writeVarint(out, game.getHalfmoveClock());
+        writeLong(out, occupied);
+
+        // two pieces to a byte, the first in the high nibble
+        int pending = -1;
+        for (long bits = occupied; bits != 0; bits &= bits - 1) {
+            int piece = board.pieceAt(Long.numberOfTrailingZeros(bits));
+            if (pending < 0) {
+                pending = piece << 4;
+            } else {
+                out.write(pending | piece);
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            out.write(pending);
+        }
+
+        writeVarint(out, historyLength);
+        for (int i = 0; i < historyLength; i++) {
+            writeLong(out, history[i]);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Rebuilds a game from bytes written by {@link #encode(ChessGame)}
+     *
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     */
+    public static ChessGame decode(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.get() != FORMAT) {
+                throw new IllegalArgumentException("Not an encoded chess game");
+            }
+            int turn = in.get() & 0xFF;
+            int rules = in.get() & 0xFF;
+            ChessGame.GameState[] states = ChessGame.GameState.values();
+            if (turn >>> 1 >= states.length) {
+                throw new IllegalArgumentException("Bad game state " + (turn >>> 1));
+            }
+            int round = readVarint(in);
+            int halfmoveClock = readVarint(in);
+
+            ChessBoard board = new ChessBoard();
+            long occupied = in.getLong();
+            int index = 0;
+            int packed = 0;
+            for (long bits = occupied; bits != 0; bits &= bits - 1, index++) {
+                int piece;
+                if ((index & 1) == 0) {
+                    packed = in.get() & 0xFF;
+                    piece = packed >>> 4;
+                } else {
+                    piece = packed & 15;
+                }
+                if (piece >= 12) {
+                    throw new IllegalArgumentException("Bad piece " + piece);
+                }
+                board.addPiece(Bitboard.position(Long.numberOfTrailingZeros(bits)), Bitboard.chessPiece(piece));
+            }
+
+            int historyLength = readVarint(in);
+            if (historyLength > in.remaining() / 8) {
+                throw new IllegalArgumentException("Truncated repetition history");
+            }
+            long[] history = new long[Math.max(8, historyLength)];
+            for (int i = 0; i < historyLength; i++) {
+                history[i] = in.getLong();
+            }
+
+            ChessGame game = new ChessGame();
+            game.setBoard(board);
+            game.setTeamTurn(Bitboard.teamColor(turn & 1));
+            game.setGameState(states[turn >>> 1]);
+            game.setCastlingRights(rules & 15);
+            int file = rules >>> 4;
+            if (file != 0) {
+                game.setEnPassantSquare((game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 40 : 16) + file - 1);
+            }
+            game.setRound(round);
+            game.setHalfmoveClock(halfmoveClock);
+            game.setHistory(history, historyLength);
+            return game;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated chess game", ex);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package chess;
+
+import chess.bitboard.Bitboard;
+import chess.bitboard.Move;
+import chess.bitboard.MoveGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Remembers each side's legal moves and check status for one position.
+ * Moves are held packed and only turned into ChessMoves for the piece a
+ * caller asks about.
+ * <p>
+ * Entries are tied to the board's Zobrist key and the castling rights and en
+ * passant square, so the first lookup after any of them changes throws
+ * everything away and the next one regenerates it.
+ */
+class LegalityCache {
+    private long key;
+    private int castling;
+    private int enPassant;
+    private boolean filled;
+    // packed moves per side, null until that side is asked about
+    private final int[][] moves = new int[2][];
+    private final int[] counts = new int[2];
+    private final byte[] inCheck = new byte[2];
+    private final MoveGenerator generator = new MoveGenerator();
+    private final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+
+    private static final byte UNKNOWN = 0;
+    private static final byte NO = 1;
+    private static final byte YES = 2;
+
+    private void sync(Bitboard board, int castling, int enPassant) {
+        if (!filled || key != board.key() || this.castling != castling || this.enPassant != enPassant) {
+            key = board.key();
+            this.castling = castling;
+            this.enPassant = enPassant;
+            filled = true;
+            moves[0] = null;
+            moves[1] = null;
+            inCheck[0] = UNKNOWN;
+            inCheck[1] = UNKNOWN;
+        }
+    }
+
+    private int[] legalMoves(Bitboard board, int color, int castling, int enPassant) {
+        sync(board, castling, enPassant);
+        if (moves[color] == null) {
+            counts[color] = generator.reset(board, color, castling, enPassant).generate(buffer, 0);
+            moves[color] = Arrays.copyOf(buffer, counts[color]);
+            inCheck[color] = generator.inCheck() ? YES : NO;
+        }
+        return moves[color];
+    }
+
+    /**
+     * @return the legal moves of the piece on a square, as ChessMoves
+     */
+    List<ChessMove> legalMoves(Bitboard board, int color, int castling, int enPassant, int square) {
+        int[] all = legalMoves(board, color, castling, enPassant);
+        List<ChessMove> result = new ArrayList<>();
+        for (int move : all) {
+            if (Move.from(move) == square) {
+                result.add(Move.toChessMove(move));
+            }
+        }
+        return result;
+    }
+
+    boolean isLegal(Bitboard board, int color, int castling, int enPassant, ChessMove move) {
+        int wanted = Move.of(move);
+        for (int legal : legalMoves(board, color, castling, enPassant)) {
+            if (Move.key(legal) == wanted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean hasLegalMove(Bitboard board, int color, int castling, int enPassant) {
+        return legalMoves(board, color, castling, enPassant).length > 0;
+    }
+
+    boolean inCheck(Bitboard board, int color, int castling, int enPassant) {
+        sync(board, castling, enPassant);
+        if (inCheck[color] == UNKNOWN) {
+            inCheck[color] = generator.reset(board, color).inCheck() ? YES : NO;
+        }
+        return inCheck[color] == YES;
+    }
+}
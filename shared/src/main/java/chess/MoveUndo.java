@@ -0,0 +1,35 @@
+package chess;
+
+/**
+ * Everything needed to take back a move made with
+ * {@link ChessGame#makeMove(ChessMove, MoveUndo)}.
+ * <p>
+ * A single instance can be reused for every move of a search or legality
+ * check; making a move overwrites whatever it held before.
+ */
+public class MoveUndo {
+    ChessMove move;
+    ChessPiece movedPiece;
+    ChessPiece capturedPiece;
+    // where the captured piece stood, which is not the move's end for en passant
+    ChessPosition capturedPosition;
+    ChessGame.TeamColor teamTurn;
+    int round;
+    ChessGame.GameState gameState;
+    long[] history;
+    int historyLength;
+    int halfmoveClock;
+    int castlingRights;
+    int enPassantFile;
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    /**
+     * @return the piece that was taken by the move, or null if it was not a capture
+     */
+    public ChessPiece getCapturedPiece() {
+        return capturedPiece;
+    }
+}
@@ -0,0 +1,177 @@
+package chess.bitboard;
+
+/**
+ * Precomputed attack tables and attack queries on a {@link Bitboard}.
+ * <p>
+ * Knight, king and pawn attacks come straight out of 64-entry tables. Sliding
+ * attacks use per-direction ray masks and stop at the first blocker found
+ * with a single bit scan.
+ */
+public final class Attacks {
+    public static final int NORTH = 0;
+    public static final int NORTH_EAST = 1;
+    public static final int EAST = 2;
+    public static final int SOUTH_EAST = 3;
+    public static final int SOUTH = 4;
+    public static final int SOUTH_WEST = 5;
+    public static final int WEST = 6;
+    public static final int NORTH_WEST = 7;
+
+    private static final int[] RANK_STEP = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] FILE_STEP = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    // PAWN[color][square] = squares a pawn of that color on that square attacks
+    private static final long[][] PAWN = new long[2][64];
+    // RAYS[direction][square] = every square from square to the edge of the board, exclusive
+    private static final long[][] RAYS = new long[8][64];
+    // BETWEEN[a][b] = squares strictly between two aligned squares, LINE[a][b] = the whole line through them
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {{2, -1}, {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}};
+        for (int sq = 0; sq < 64; sq++) {
+            int rank = sq >>> 3;
+            int file = sq & 7;
+            for (int[] step : knightSteps) {
+                KNIGHT[sq] |= bit(rank + step[0], file + step[1]);
+            }
+            for (int dir = 0; dir < 8; dir++) {
+                KING[sq] |= bit(rank + RANK_STEP[dir], file + FILE_STEP[dir]);
+                for (int r = rank + RANK_STEP[dir], f = file + FILE_STEP[dir]; onBoard(r, f);
+                     r += RANK_STEP[dir], f += FILE_STEP[dir]) {
+                    RAYS[dir][sq] |= bit(r, f);
+                }
+            }
+            PAWN[Bitboard.WHITE][sq] = bit(rank + 1, file - 1) | bit(rank + 1, file + 1);
+            PAWN[Bitboard.BLACK][sq] = bit(rank - 1, file - 1) | bit(rank - 1, file + 1);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            for (int dir = 0; dir < 8; dir++) {
+                long line = RAYS[dir][sq] | RAYS[(dir + 4) % 8][sq] | 1L << sq;
+                long ray = RAYS[dir][sq];
+                while (ray != 0) {
+                    int to = Long.numberOfTrailingZeros(ray);
+                    BETWEEN[sq][to] = RAYS[dir][sq] & ~RAYS[dir][to] & ~(1L << to);
+                    LINE[sq][to] = line;
+                    ray &= ray - 1;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated.");
+    }
+
+    private static boolean onBoard(int rank, int file) {
+        return rank >= 0 && rank < 8 && file >= 0 && file < 8;
+    }
+
+    private static long bit(int rank, int file) {
+        return onBoard(rank, file) ? 1L << (rank * 8 + file) : 0L;
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long ray(int direction, int square) {
+        return RAYS[direction][square];
+    }
+
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return the full line through two squares if they share a rank, file or diagonal, otherwise 0
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * @return the squares a slider on square sees in one direction, up to and including the first blocker
+     */
+    public static long slide(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        int first = firstBlocker(direction, blockers);
+        return ray ^ RAYS[direction][first];
+    }
+
+    private static int firstBlocker(int direction, long blockers) {
+        // rays heading up the board meet their blocker at the lowest set bit, the others at the highest
+        if (direction == NORTH || direction == NORTH_EAST || direction == EAST || direction == NORTH_WEST) {
+            return Long.numberOfTrailingZeros(blockers);
+        }
+        return 63 - Long.numberOfLeadingZeros(blockers);
+    }
+
+    public static long rook(int square, long occupied) {
+        return slide(NORTH, square, occupied) | slide(EAST, square, occupied)
+                | slide(SOUTH, square, occupied) | slide(WEST, square, occupied);
+    }
+
+    public static long bishop(int square, long occupied) {
+        return slide(NORTH_EAST, square, occupied) | slide(SOUTH_EAST, square, occupied)
+                | slide(SOUTH_WEST, square, occupied) | slide(NORTH_WEST, square, occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Determines if any piece of the given color attacks a square
+     *
+     * @param board   the board to look at
+     * @param square  the square in question, 0-63
+     * @param byColor {@link Bitboard#WHITE} or {@link Bitboard#BLACK}
+     * @return True if a piece of byColor could capture on that square
+     */
+    public static boolean isSquareAttacked(Bitboard board, int square, int byColor) {
+        if ((KNIGHT[square] & board.pieces(byColor, Bitboard.KNIGHT)) != 0) {
+            return true;
+        }
+        if ((KING[square] & board.pieces(byColor, Bitboard.KING)) != 0) {
+            return true;
+        }
+        // a pawn of byColor attacks square exactly when a pawn of the other color on square would attack it
+        if ((PAWN[byColor ^ 1][square] & board.pieces(byColor, Bitboard.PAWN)) != 0) {
+            return true;
+        }
+        long queens = board.pieces(byColor, Bitboard.QUEEN);
+        long straight = board.pieces(byColor, Bitboard.ROOK) | queens;
+        long diagonal = board.pieces(byColor, Bitboard.BISHOP) | queens;
+        long occupied = board.occupied();
+        return (straight != 0 && (rook(square, occupied) & straight) != 0)
+                || (diagonal != 0 && (bishop(square, occupied) & diagonal) != 0);
+    }
+
+    /**
+     * @return every piece of the given color that attacks the square
+     */
+    public static long attackersOf(Bitboard board, int square, int byColor, long occupied) {
+        long queens = board.pieces(byColor, Bitboard.QUEEN);
+        return (KNIGHT[square] & board.pieces(byColor, Bitboard.KNIGHT))
+                | (KING[square] & board.pieces(byColor, Bitboard.KING))
+                | (PAWN[byColor ^ 1][square] & board.pieces(byColor, Bitboard.PAWN))
+                | (rook(square, occupied) & (board.pieces(byColor, Bitboard.ROOK) | queens))
+                | (bishop(square, occupied) & (board.pieces(byColor, Bitboard.BISHOP) | queens));
+    }
+}
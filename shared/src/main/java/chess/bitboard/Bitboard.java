@@ -0,0 +1,183 @@
+package chess.bitboard;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard view of a chess board: one 64-bit mask per piece type and color,
+ * plus occupancy masks and a square-to-piece mailbox.
+ * <p>
+ * Squares are numbered 0-63 with a1 = 0, h1 = 7 and h8 = 63. Pieces are
+ * numbered color * 6 + type, where color is {@link #WHITE} or {@link #BLACK}
+ * and type is the {@link ChessPiece.PieceType} ordinal.
+ */
+public class Bitboard {
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+    public static final int EMPTY = -1;
+
+    public static final int KING = ChessPiece.PieceType.KING.ordinal();
+    public static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    public static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal();
+    public static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal();
+    public static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    public static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final byte[] mailbox = new byte[64];
+    // Zobrist key of the pieces on the board, updated on every put and remove
+    private long key;
+
+    public Bitboard() {
+        Arrays.fill(mailbox, (byte) EMPTY);
+    }
+
+    public Bitboard(Bitboard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        occupied = other.occupied;
+        key = other.key;
+    }
+
+    /**
+     * Places a piece on a square, replacing whatever was there
+     */
+    public void put(int square, int piece) {
+        remove(square);
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        colors[colorOf(piece)] |= bit;
+        occupied |= bit;
+        mailbox[square] = (byte) piece;
+        key ^= Zobrist.piece(piece, square);
+    }
+
+    /**
+     * Empties a square, returning the piece that was on it or {@link #EMPTY}
+     */
+    public int remove(int square) {
+        int piece = mailbox[square];
+        if (piece != EMPTY) {
+            long mask = ~(1L << square);
+            pieces[piece] &= mask;
+            colors[colorOf(piece)] &= mask;
+            occupied &= mask;
+            mailbox[square] = (byte) EMPTY;
+            key ^= Zobrist.piece(piece, square);
+        }
+        return piece;
+    }
+
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        Arrays.fill(mailbox, (byte) EMPTY);
+        occupied = 0L;
+        key = 0L;
+    }
+
+    public int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    public long pieces(int piece) {
+        return pieces[piece];
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[color * 6 + type];
+    }
+
+    public long occupancy(int color) {
+        return colors[color];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the piece placement alone
+     */
+    public long key() {
+        return key;
+    }
+
+    /**
+     * @return the square of the given color's king, or {@link #EMPTY} if it has none
+     */
+    public int kingSquare(int color) {
+        long king = pieces[color * 6 + KING];
+        return king == 0 ? EMPTY : Long.numberOfTrailingZeros(king);
+    }
+
+    public static int square(ChessPosition position) {
+        // ChessPosition keeps its row counted down from the eighth rank
+        return (7 - position.getRow()) * 8 + position.getColumn();
+    }
+
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    public static ChessPosition position(int square) {
+        return ChessPosition.of((square >>> 3) + 1, (square & 7) + 1);
+    }
+
+    public static boolean onBoard(ChessPosition position) {
+        return position.getRow() >= 0 && position.getRow() < 8 && position.getColumn() >= 0 && position.getColumn() < 8;
+    }
+
+    public static int color(ChessGame.TeamColor teamColor) {
+        return teamColor == ChessGame.TeamColor.WHITE ? WHITE : BLACK;
+    }
+
+    public static ChessGame.TeamColor teamColor(int color) {
+        return color == WHITE ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    public static int piece(int color, int type) {
+        return color * 6 + type;
+    }
+
+    public static int piece(ChessPiece piece) {
+        return color(piece.getTeamColor()) * 6 + piece.getPieceType().ordinal();
+    }
+
+    public static ChessPiece chessPiece(int piece) {
+        return ChessPiece.of(teamColor(colorOf(piece)), TYPES[typeOf(piece)]);
+    }
+
+    public static int colorOf(int piece) {
+        return piece < 6 ? WHITE : BLACK;
+    }
+
+    public static int typeOf(int piece) {
+        return piece < 6 ? piece : piece - 6;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Bitboard that = (Bitboard) o;
+        return Arrays.equals(pieces, that.pieces);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (key ^ (key >>> 32));
+    }
+}
@@ -0,0 +1,113 @@
+package chess.bitboard;
+
+import java.util.Arrays;
+
+/**
+ * Castling rights packed into four bits, one per king and side of the board.
+ * <p>
+ * A right is lost for good once its king or rook leaves its starting square
+ * or the rook is captured there, so every move only has to clear the bits
+ * for the two squares it touches.
+ */
+public final class Castling {
+    public static final int NONE = 0;
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL = 15;
+
+    // rights that survive a move from or to each square
+    private static final int[] KEPT = new int[64];
+
+    static {
+        Arrays.fill(KEPT, ALL);
+        KEPT[4] = ALL & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        KEPT[0] = ALL & ~WHITE_QUEENSIDE;
+        KEPT[7] = ALL & ~WHITE_KINGSIDE;
+        KEPT[60] = ALL & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        KEPT[56] = ALL & ~BLACK_QUEENSIDE;
+        KEPT[63] = ALL & ~BLACK_KINGSIDE;
+    }
+
+    private Castling() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated.");
+    }
+
+    /**
+     * @return the rights left after a move between two squares
+     */
+    public static int afterMove(int rights, int from, int to) {
+        return rights & KEPT[from] & KEPT[to];
+    }
+
+    /**
+     * @return the kingside and queenside rights of one color
+     */
+    public static int of(int color) {
+        return color == Bitboard.WHITE ? WHITE_KINGSIDE | WHITE_QUEENSIDE : BLACK_KINGSIDE | BLACK_QUEENSIDE;
+    }
+
+    /**
+     * Rights for a board set up from scratch, where nothing is known about
+     * earlier moves: every king and rook still on its starting square may castle
+     */
+    public static int fromBoard(Bitboard board) {
+        int rights = NONE;
+        for (int color = Bitboard.WHITE; color <= Bitboard.BLACK; color++) {
+            int home = color == Bitboard.WHITE ? 0 : 56;
+            int rook = Bitboard.piece(color, Bitboard.ROOK);
+            if (board.pieceAt(home + 4) != Bitboard.piece(color, Bitboard.KING)) {
+                continue;
+            }
+            if (board.pieceAt(home + 7) == rook) {
+                rights |= color == Bitboard.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+            }
+            if (board.pieceAt(home) == rook) {
+                rights |= color == Bitboard.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * @param field the FEN castling field, e.g. "KQkq" or "-"
+     */
+    public static int parse(String field) {
+        int rights = NONE;
+        for (char c : field.toCharArray()) {
+            rights |= switch (c) {
+                case 'K' -> WHITE_KINGSIDE;
+                case 'Q' -> WHITE_QUEENSIDE;
+                case 'k' -> BLACK_KINGSIDE;
+                case 'q' -> BLACK_QUEENSIDE;
+                case '-' -> NONE;
+                default -> throw new IllegalArgumentException("Bad castling field '" + field + "'");
+            };
+        }
+        return rights;
+    }
+
+    /**
+     * @return the rights as a FEN castling field
+     */
+    public static String toString(int rights) {
+        if (rights == NONE) {
+            return "-";
+        }
+        StringBuilder field = new StringBuilder();
+        if ((rights & WHITE_KINGSIDE) != 0) {
+            field.append('K');
+        }
+        if ((rights & WHITE_QUEENSIDE) != 0) {
+            field.append('Q');
+        }
+        if ((rights & BLACK_KINGSIDE) != 0) {
+            field.append('k');
+        }
+        if ((rights & BLACK_QUEENSIDE) != 0) {
+            field.append('q');
+        }
+        return field.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package chess.bitboard;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+import java.util.Map;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation and moves in
+ * coordinate notation ("e2e4", "a7a8q").
+ */
+public final class Fen {
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final Map<Character, ChessPiece.PieceType> CHAR_TO_TYPE = Map.of(
+            'k', ChessPiece.PieceType.KING,
+            'q', ChessPiece.PieceType.QUEEN,
+            'b', ChessPiece.PieceType.BISHOP,
+            'n', ChessPiece.PieceType.KNIGHT,
+            'r', ChessPiece.PieceType.ROOK,
+            'p', ChessPiece.PieceType.PAWN);
+    private static final String TYPE_CHARS = "kqbnrp";
+
+    private Fen() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated.");
+    }
+
+    /**
+     * Builds a game from a FEN string
+     *
+     * @param fen the position to load
+     * @return a game with that board, side to move, castling rights, en passant square and halfmove clock
+     * @throws IllegalArgumentException if the string is not a valid FEN position
+     */
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("Expected at least a board and a side to move: " + fen);
+        }
+        ChessBoard board = new ChessBoard();
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Expected 8 ranks: " + fen);
+        }
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                    continue;
+                }
+                ChessPiece.PieceType type = CHAR_TO_TYPE.get(Character.toLowerCase(c));
+                if (type == null || col > 8) {
+                    throw new IllegalArgumentException("Bad rank '" + ranks[i] + "': " + fen);
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(ChessPosition.of(row, col), ChessPiece.of(color, type));
+                col++;
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("Bad rank '" + ranks[i] + "': " + fen);
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        switch (fields[1]) {
+            case "w" -> game.setTeamTurn(ChessGame.TeamColor.WHITE);
+            case "b" -> game.setTeamTurn(ChessGame.TeamColor.BLACK);
+            default -> throw new IllegalArgumentException("Bad side to move '" + fields[1] + "': " + fen);
+        }
+        if (fields.length >= 3) {
+            game.setCastlingRights(Castling.parse(fields[2]));
+        }
+        if (fields.length >= 4 && !fields[3].equals("-")) {
+            game.setEnPassantSquare(parseSquare(fields[3], fen));
+        }
+        if (fields.length >= 5) {
+            try {
+                game.setHalfmoveClock(Integer.parseInt(fields[4]));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Bad halfmove clock '" + fields[4] + "': " + fen);
+            }
+        }
+        return game;
+    }
+
+    /**
+     * @return the FEN board and side-to-move fields for a game
+     */
+    public static String toFen(ChessGame game) {
+        StringBuilder fen = new StringBuilder();
+        Bitboard bits = game.getBoard().getBitboard();
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = bits.pieceAt(rank * 8 + file);
+                if (piece == Bitboard.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char c = TYPE_CHARS.charAt(Bitboard.typeOf(piece));
+                fen.append(Bitboard.colorOf(piece) == Bitboard.WHITE ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b");
+        return fen.toString();
+    }
+
+    private static int parseSquare(String name, String fen) {
+        if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h'
+                || name.charAt(1) < '1' || name.charAt(1) > '8') {
+            throw new IllegalArgumentException("Bad square '" + name + "': " + fen);
+        }
+        return (name.charAt(1) - '1') * 8 + name.charAt(0) - 'a';
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('1' + (square >>> 3));
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. "e2e4" or "e7e8q"
+     */
+    public static String moveName(ChessMove move) {
+        String name = squareName(Bitboard.square(move.getStartPosition())) + squareName(Bitboard.square(move.getEndPosition()));
+        if (move.getPromotionPiece() != null) {
+            name += TYPE_CHARS.charAt(move.getPromotionPiece().ordinal());
+        }
+        return name;
+    }
+}
@@ -0,0 +1,133 @@
+package chess.bitboard;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+
+/**
+ * Moves packed into a single int so generating them allocates nothing.
+ * <p>
+ * Bits 0-5 hold the from square, 6-11 the to square, 12-14 the promotion
+ * piece type plus one (0 for no promotion) and 15 and up the flags.
+ * 0 is never a legal move and stands for "no move".
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    // the king's two-square move; the rook's move is implied by where the king lands
+    public static final int CASTLE = 1 << 17;
+    // a pawn capture whose victim is beside the pawn rather than on the target square
+    public static final int EN_PASSANT = 1 << 18;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated.");
+    }
+
+    public static int of(int from, int to) {
+        return from | to << 6;
+    }
+
+    public static int of(int from, int to, int flags) {
+        return from | to << 6 | flags;
+    }
+
+    public static int promotion(int from, int to, int promotionType, int flags) {
+        return from | to << 6 | (promotionType + 1) << 12 | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece type, or {@link Bitboard#EMPTY} if the move is not a promotion
+     */
+    public static int promotion(int move) {
+        return ((move >>> 12) & 7) - 1;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & 7 << 12) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & DOUBLE_PUSH) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    /**
+     * @return the square of the piece a capture takes, which for en passant is on the from square's rank
+     */
+    public static int capturedSquare(int move) {
+        return isEnPassant(move) ? (from(move) & 56) | (to(move) & 7) : to(move);
+    }
+
+    /**
+     * @return where the rook starts for a castling king landing on the given square
+     */
+    public static int castlingRookFrom(int kingTo) {
+        return (kingTo & 7) == 6 ? kingTo + 1 : kingTo - 2;
+    }
+
+    /**
+     * @return where the rook ends up for a castling king landing on the given square
+     */
+    public static int castlingRookTo(int kingTo) {
+        return (kingTo & 7) == 6 ? kingTo - 1 : kingTo + 1;
+    }
+
+    /**
+     * @return the from square, to square and promotion, without flags, for comparing moves
+     */
+    public static int key(int move) {
+        return move & 0x7FFF;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        int promotion = promotion(move);
+        return new ChessMove(Bitboard.position(from(move)), Bitboard.position(to(move)),
+                promotion == Bitboard.EMPTY ? null : TYPES[promotion]);
+    }
+
+    /**
+     * @return the packed move without flags, which {@link #key(int)} of a generated move can be compared to
+     */
+    public static int of(ChessMove move) {
+        int from = Bitboard.square(move.getStartPosition());
+        int to = Bitboard.square(move.getEndPosition());
+        if (move.getPromotionPiece() == null) {
+            return of(from, to);
+        }
+        return promotion(from, to, move.getPromotionPiece().ordinal(), 0);
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. "e2e4" or "e7e8q"
+     */
+    public static String name(int move) {
+        String name = Fen.squareName(from(move)) + Fen.squareName(to(move));
+        int promotion = promotion(move);
+        if (promotion != Bitboard.EMPTY) {
+            name += "kqbnrp".charAt(promotion);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,340 @@
+package chess.bitboard;
+
+import chess.ChessMove;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates strictly legal moves for one side of a {@link Bitboard}.
+ * <p>
+ * Checkers and pinned pieces are found once when the generator is pointed at
+ * a position. After that every piece is limited to the squares that block or
+ * capture a single checker and, if pinned, to the line through its king, so
+ * no move ever has to be played out to see whether it leaves the king in
+ * check.
+ * <p>
+ * Castling and en passant depend on more than the board, so the castling
+ * rights and the en passant square are handed in along with it. En passant
+ * is the one move whose legality is played out, since taking the pawn can
+ * uncover the king along the rank the two pawns stood on.
+ * <p>
+ * Moves are written as packed ints (see {@link Move}) into a caller's
+ * buffer, so a generator that is reused through
+ * {@link #reset(Bitboard, int, int, int)} allocates nothing.
+ */
+public class MoveGenerator {
+    /**
+     * No legal chess position has more moves than this
+     */
+    public static final int MAX_MOVES = 256;
+
+    private static final int[] PROMOTIONS = {Bitboard.QUEEN, Bitboard.BISHOP, Bitboard.ROOK, Bitboard.KNIGHT};
+
+    private Bitboard board;
+    private int color;
+    private int king;
+    private long own;
+    private long enemy;
+    private long occupied;
+    private long checkers;
+    private long pinned;
+    private long checkMask;
+    private int castling;
+    private int enPassant;
+    private int[] scratch;
+
+    public MoveGenerator() {
+    }
+
+    public MoveGenerator(Bitboard board, int color) {
+        reset(board, color);
+    }
+
+    /**
+     * Points this generator at a board with no castling rights and no en passant square
+     *
+     * @return this generator
+     */
+    public MoveGenerator reset(Bitboard board, int color) {
+        return reset(board, color, Castling.NONE, Bitboard.EMPTY);
+    }
+
+    /**
+     * Points this generator at a position, working out checkers and pins for the side to generate for
+     *
+     * @param castling  {@link Castling} rights of both sides
+     * @param enPassant the square a pawn that just moved two squares passed over, or {@link Bitboard#EMPTY}
+     * @return this generator
+     */
+    public MoveGenerator reset(Bitboard board, int color, int castling, int enPassant) {
+        this.board = board;
+        this.color = color;
+        this.castling = castling & Castling.of(color);
+        // the square only means something to the side whose pawns can take onto it
+        this.enPassant = enPassant != Bitboard.EMPTY && enPassant >>> 3 == (color == Bitboard.WHITE ? 5 : 2)
+                ? enPassant : Bitboard.EMPTY;
+        this.king = board.kingSquare(color);
+        this.own = board.occupancy(color);
+        this.enemy = board.occupancy(color ^ 1);
+        this.occupied = board.occupied();
+        // boards without a king (test positions) have nothing to keep out of check
+        if (king == Bitboard.EMPTY) {
+            checkers = 0L;
+            pinned = 0L;
+            checkMask = ~0L;
+            return this;
+        }
+        checkers = Attacks.attackersOf(board, king, color ^ 1, occupied);
+        pinned = findPinned();
+        if (checkers == 0) {
+            checkMask = ~0L;
+        } else if (Long.bitCount(checkers) == 1) {
+            // a single checker can be captured, or a slider can be blocked
+            checkMask = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        } else {
+            // double check: only the king may move
+            checkMask = 0L;
+        }
+        return this;
+    }
+
+    /**
+     * @return every legal move for the given side
+     */
+    public static List<ChessMove> legalMoves(Bitboard board, int color) {
+        return legalMoves(board, color, ~0L);
+    }
+
+    /**
+     * @return every legal move for the piece on the given square
+     */
+    public static List<ChessMove> legalMoves(Bitboard board, int color, int square) {
+        return legalMoves(board, color, 1L << square);
+    }
+
+    private static List<ChessMove> legalMoves(Bitboard board, int color, long fromMask) {
+        int[] moves = new int[MAX_MOVES];
+        int count = new MoveGenerator(board, color).generate(fromMask, moves, 0);
+        List<ChessMove> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(Move.toChessMove(moves[i]));
+        }
+        return result;
+    }
+
+    public boolean inCheck() {
+        return checkers != 0;
+    }
+
+    public long checkers() {
+        return checkers;
+    }
+
+    /**
+     * @return True if the side has at least one legal move, stopping at the first piece that does
+     */
+    public boolean hasLegalMove() {
+        if (scratch == null) {
+            scratch = new int[MAX_MOVES];
+        }
+        long pieces = own;
+        // the king goes first since it is the only piece that can move in double check
+        if (king != Bitboard.EMPTY) {
+            if (generate(1L << king, scratch, 0) > 0) {
+                return true;
+            }
+            pieces &= ~(1L << king);
+        }
+        while (pieces != 0) {
+            if (generate(pieces & -pieces, scratch, 0) > 0) {
+                return true;
+            }
+            pieces &= pieces - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Writes every legal move for the side into a buffer
+     *
+     * @param moves buffer with room for {@link #MAX_MOVES} past count
+     * @param count index to start writing at
+     * @return the index after the last move written
+     */
+    public int generate(int[] moves, int count) {
+        return generate(~0L, moves, count);
+    }
+
+    /**
+     * Writes the legal moves of the side's pieces on the given squares into a buffer
+     *
+     * @param fromMask squares whose pieces should be generated for
+     * @param moves    buffer with room for {@link #MAX_MOVES} past count
+     * @param count    index to start writing at
+     * @return the index after the last move written
+     */
+    public int generate(long fromMask, int[] moves, int count) {
+        if (king != Bitboard.EMPTY && (fromMask & 1L << king) != 0) {
+            count = kingMoves(moves, count);
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return count;
+        }
+        long pieces = own & fromMask;
+        if (king != Bitboard.EMPTY) {
+            pieces &= ~(1L << king);
+        }
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long allowed = checkMask;
+            if ((pinned & 1L << from) != 0) {
+                allowed &= Attacks.line(king, from);
+            }
+            int type = Bitboard.typeOf(board.pieceAt(from));
+            if (type == Bitboard.PAWN) {
+                count = pawnMoves(from, allowed, moves, count);
+            } else {
+                count = addMoves(from, targets(type, from) & ~own & allowed, moves, count);
+            }
+        }
+        return count;
+    }
+
+    private long targets(int type, int from) {
+        if (type == Bitboard.KNIGHT) {
+            return Attacks.knight(from);
+        }
+        if (type == Bitboard.BISHOP) {
+            return Attacks.bishop(from, occupied);
+        }
+        if (type == Bitboard.ROOK) {
+            return Attacks.rook(from, occupied);
+        }
+        if (type == Bitboard.QUEEN) {
+            return Attacks.queen(from, occupied);
+        }
+        // a second king of the same color, only possible on hand-built boards
+        return Attacks.king(from);
+    }
+
+    private long findPinned() {
+        long queens = board.pieces(color ^ 1, Bitboard.QUEEN);
+        // enemy sliders that would hit the king if only enemy pieces were on the board
+        long snipers = (Attacks.rook(king, enemy) & (board.pieces(color ^ 1, Bitboard.ROOK) | queens))
+                | (Attacks.bishop(king, enemy) & (board.pieces(color ^ 1, Bitboard.BISHOP) | queens));
+        long result = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                result |= blockers;
+            }
+        }
+        return result;
+    }
+
+    private int kingMoves(int[] moves, int count) {
+        long targets = Attacks.king(king) & ~own;
+        // take the king off the board so sliders checking it also cover the squares behind it
+        long withoutKing = occupied & ~(1L << king);
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (Attacks.attackersOf(board, to, color ^ 1, withoutKing) == 0) {
+                moves[count++] = Move.of(king, to, (enemy & 1L << to) != 0 ? Move.CAPTURE : 0);
+            }
+        }
+        if (castling != Castling.NONE && checkers == 0) {
+            int home = color == Bitboard.WHITE ? 0 : 56;
+            if ((castling & (Castling.WHITE_KINGSIDE | Castling.BLACK_KINGSIDE)) != 0) {
+                count = castle(home + 6, home + 7, moves, count);
+            }
+            if ((castling & (Castling.WHITE_QUEENSIDE | Castling.BLACK_QUEENSIDE)) != 0) {
+                count = castle(home + 2, home, moves, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds a castling move if the squares between king and rook are empty and
+     * the king does not pass through or land on an attacked square
+     */
+    private int castle(int to, int rookFrom, int[] moves, int count) {
+        int rook = Bitboard.piece(color, Bitboard.ROOK);
+        if (king != (to & 56) + 4 || board.pieceAt(rookFrom) != rook
+                || (Attacks.between(king, rookFrom) & occupied) != 0) {
+            return count;
+        }
+        // the king is not in check, so only the square it crosses and the one it lands on need looking at
+        int step = to > king ? 1 : -1;
+        if (Attacks.attackersOf(board, king + step, color ^ 1, occupied) != 0
+                || Attacks.attackersOf(board, to, color ^ 1, occupied) != 0) {
+            return count;
+        }
+        moves[count++] = Move.of(king, to, Move.CASTLE);
+        return count;
+    }
+
+    private int pawnMoves(int from, long allowed, int[] moves, int count) {
+        int forward = color == Bitboard.WHITE ? 8 : -8;
+        int startRank = color == Bitboard.WHITE ? 1 : 6;
+        int one = from + forward;
+        if (one >= 0 && one < 64 && (occupied & 1L << one) == 0) {
+            if ((allowed & 1L << one) != 0) {
+                count = addPawnMove(from, one, 0, moves, count);
+            }
+            int two = one + forward;
+            if (from >>> 3 == startRank && (occupied & 1L << two) == 0 && (allowed & 1L << two) != 0) {
+                moves[count++] = Move.of(from, two, Move.DOUBLE_PUSH);
+            }
+        }
+        long captures = Attacks.pawn(color, from) & enemy & allowed;
+        while (captures != 0) {
+            count = addPawnMove(from, Long.numberOfTrailingZeros(captures), Move.CAPTURE, moves, count);
+            captures &= captures - 1;
+        }
+        if (enPassant != Bitboard.EMPTY && (Attacks.pawn(color, from) & 1L << enPassant) != 0
+                && enPassantIsLegal(from)) {
+            moves[count++] = Move.of(from, enPassant, Move.CAPTURE | Move.EN_PASSANT);
+        }
+        return count;
+    }
+
+    /**
+     * Plays the capture out on the occupancy alone: two pieces leave the
+     * rank at once, which pins and check masks do not account for
+     */
+    private boolean enPassantIsLegal(int from) {
+        if (king == Bitboard.EMPTY) {
+            return true;
+        }
+        long victim = 1L << ((from & 56) | (enPassant & 7));
+        long after = (occupied & ~(1L << from) & ~victim) | 1L << enPassant;
+        return (Attacks.attackersOf(board, king, color ^ 1, after) & ~victim) == 0;
+    }
+
+    private int addPawnMove(int from, int to, int flags, int[] moves, int count) {
+        int lastRank = color == Bitboard.WHITE ? 7 : 0;
+        if (to >>> 3 == lastRank) {
+            for (int promotion : PROMOTIONS) {
+                moves[count++] = Move.promotion(from, to, promotion, flags);
+            }
+        } else {
+            moves[count++] = Move.of(from, to, flags);
+        }
+        return count;
+    }
+
+    private int addMoves(int from, long targets, int[] moves, int count) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[count++] = Move.of(from, to, (enemy & 1L << to) != 0 ? Move.CAPTURE : 0);
+        }
+        return count;
+    }
+}
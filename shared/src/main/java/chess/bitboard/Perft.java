@@ -0,0 +1,100 @@
+package chess.bitboard;
+
+import chess.ChessGame;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth.
+ * <p>
+ * Comparing the counts against known values is the correctness check for
+ * the move generator, and timing them gives its throughput. Run
+ * {@link #main(String[])} with no arguments to time the whole
+ * {@link PerftSuite}, or with a depth and a FEN string to print a divide.
+ */
+public class Perft {
+    private final Position position;
+    // one move buffer per ply, so counting allocates nothing
+    private final int[][] moves = new int[Position.MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    public Perft(ChessGame game) {
+        this(Position.of(game));
+    }
+
+    public Perft(Position position) {
+        this.position = position;
+    }
+
+    /**
+     * @return the number of positions reached after exactly depth moves
+     */
+    public long perft(int depth) {
+        return perft(depth, 0);
+    }
+
+    private long perft(int depth, int ply) {
+        int[] buffer = moves[ply];
+        int count = position.generate(buffer, 0);
+        // the last ply only needs counting, not playing
+        if (depth <= 1) {
+            return depth == 1 ? count : 1;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.make(buffer[i]);
+            nodes += perft(depth - 1, ply + 1);
+            position.unmake();
+        }
+        return nodes;
+    }
+
+    /**
+     * @return the node count below each root move, keyed by the move in coordinate notation
+     */
+    public Map<String, Long> divide(int depth) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        int[] root = new int[MoveGenerator.MAX_MOVES];
+        int count = position.generate(root, 0);
+        for (int i = 0; i < count; i++) {
+            position.make(root[i]);
+            counts.put(Move.name(root[i]), depth <= 1 ? 1 : perft(depth - 1, 1));
+            position.unmake();
+        }
+        return counts;
+    }
+
+    public static void main(String[] args) {
+        if (args.length >= 2) {
+            int depth = Integer.parseInt(args[0]);
+            String fen = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+            long start = System.nanoTime();
+            long total = 0;
+            for (var entry : new Perft(Fen.parse(fen)).divide(depth).entrySet()) {
+                System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+                total += entry.getValue();
+            }
+            report(total, System.nanoTime() - start);
+            return;
+        }
+        long allNodes = 0;
+        long allTime = 0;
+        for (PerftSuite position : PerftSuite.values()) {
+            int depth = position.maxDepth();
+            long start = System.nanoTime();
+            long nodes = new Perft(Fen.parse(position.fen())).perft(depth);
+            long elapsed = System.nanoTime() - start;
+            String status = nodes == position.nodes(depth) ? "ok" : "EXPECTED " + position.nodes(depth);
+            System.out.printf("%-18s depth %d: %,12d nodes  %s%n", position, depth, nodes, status);
+            allNodes += nodes;
+            allTime += elapsed;
+        }
+        report(allNodes, allTime);
+    }
+
+    private static void report(long nodes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%nNodes: %,d  Time: %.3fs  NPS: %,.0f%n", nodes, seconds, nodes / Math.max(seconds, 1e-9));
+    }
+}
@@ -0,0 +1,45 @@
+package chess.bitboard;
+
+/**
+ * Reference positions with published perft node counts, used to check the
+ * move generator and to benchmark it.
+ */
+public enum PerftSuite {
+    STARTING_POSITION(Fen.STARTING_POSITION, 20, 400, 8_902, 197_281, 4_865_609),
+    // "Kiwipete" from the chessprogramming wiki: castling both ways for both sides, en passant and pins all at once
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 48, 2_039, 97_862, 4_085_603),
+    // "position 3" from the chessprogramming wiki: rook and pawn endgame with lots of checks and pins,
+    // including en passant captures that would uncover the king along the rank
+    ROOK_ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2_812, 43_238, 674_624),
+    // "position 4" from the chessprogramming wiki: black may still castle, white already has
+    CASTLED("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9_467, 422_333),
+    // every pawn is one step from promoting, with and without captures
+    PROMOTIONS("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1", 24, 496, 9_483, 182_838),
+    // "position 5" from the chessprogramming wiki: a pawn that promotes by taking, with white still able to castle
+    PROMOTING_CAPTURE("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 44, 1_486, 62_379, 2_103_487),
+    // "position 6" from the chessprogramming wiki: a quiet middlegame with both sides already castled
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 46, 2_079, 89_890);
+
+    private final String fen;
+    private final long[] nodes;
+
+    PerftSuite(String fen, long... nodes) {
+        this.fen = fen;
+        this.nodes = nodes;
+    }
+
+    public String fen() {
+        return fen;
+    }
+
+    public int maxDepth() {
+        return nodes.length;
+    }
+
+    /**
+     * @return the known number of leaf nodes at the given depth, starting from 1
+     */
+    public long nodes(int depth) {
+        return nodes[depth - 1];
+    }
+}
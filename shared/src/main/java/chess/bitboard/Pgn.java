@@ -0,0 +1,215 @@
+package chess.bitboard;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads games in Portable Game Notation and resolves their moves in
+ * Standard Algebraic Notation ("Nbd7", "exd5", "e8=Q+") against a
+ * {@link Position}.
+ * <p>
+ * Comments, variations, numeric annotation glyphs, move numbers and
+ * results are skipped, so only the main line of each game is kept.
+ */
+public final class Pgn {
+
+    /**
+     * One game: its tag pairs and its main line in SAN
+     */
+    public record Game(Map<String, String> tags, List<String> moves) {
+    }
+
+    private static final String PIECE_LETTERS = "KQBNR";
+
+    private Pgn() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated.");
+    }
+
+    /**
+     * Reads the next game from a PGN stream
+     *
+     * @return the game, or null at the end of the stream
+     */
+    public static Game read(BufferedReader reader) throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        StringBuilder movetext = new StringBuilder();
+        String line;
+        boolean inMoves = false;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[") && !inMoves) {
+                int space = trimmed.indexOf(' ');
+                int open = trimmed.indexOf('"');
+                int close = trimmed.lastIndexOf('"');
+                if (space > 1 && open > space && close > open) {
+                    tags.put(trimmed.substring(1, space), trimmed.substring(open + 1, close));
+                }
+                continue;
+            }
+            if (trimmed.isEmpty()) {
+                // the blank line after the movetext ends the game
+                if (inMoves) {
+                    break;
+                }
+                continue;
+            }
+            inMoves = true;
+            movetext.append(line).append('\n');
+        }
+        if (tags.isEmpty() && movetext.isEmpty()) {
+            return null;
+        }
+        return new Game(tags, sanMoves(movetext.toString()));
+    }
+
+    /**
+     * Splits movetext into SAN moves, dropping everything that is not a main line move
+     */
+    public static List<String> sanMoves(String movetext) {
+        List<String> moves = new ArrayList<>();
+        int depth = 0;
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= movetext.length(); i++) {
+            char c = i < movetext.length() ? movetext.charAt(i) : ' ';
+            if (c == '{') {
+                int end = movetext.indexOf('}', i);
+                i = end < 0 ? movetext.length() : end;
+                c = ' ';
+            } else if (c == ';') {
+                int end = movetext.indexOf('\n', i);
+                i = end < 0 ? movetext.length() : end;
+                c = ' ';
+            }
+            if (Character.isWhitespace(c) || c == '(' || c == ')') {
+                // a move that runs into a bracket belongs to the depth it was read at
+                if (depth == 0 && !token.isEmpty()) {
+                    addMove(token.toString(), moves);
+                }
+                token.setLength(0);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth = Math.max(0, depth - 1);
+                }
+            } else {
+                token.append(c);
+            }
+        }
+        return moves;
+    }
+
+    private static void addMove(String token, List<String> moves) {
+        // "12." and "12...e5" both carry a move number in front
+        int dots = token.lastIndexOf('.');
+        if (dots >= 0) {
+            token = token.substring(dots + 1);
+        }
+        if (token.isEmpty() || token.startsWith("$") || token.equals("*")
+                || token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2")) {
+            return;
+        }
+        moves.add(token);
+    }
+
+    /**
+     * Finds the legal move a SAN string stands for
+     *
+     * @return the packed move
+     * @throws IllegalArgumentException if the string is not a legal move in the position
+     */
+    public static int parseSan(Position position, String san) {
+        String move = san.replaceAll("[+#!?]+$", "");
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = position.generate(moves, 0);
+        int side = position.side();
+        Bitboard board = position.board();
+
+        if (move.equals("O-O") || move.equals("0-0") || move.equals("O-O-O") || move.equals("0-0-0")) {
+            int king = board.kingSquare(side);
+            int to = king + (move.length() > 3 ? -2 : 2);
+            for (int i = 0; i < count; i++) {
+                if (Move.from(moves[i]) == king && Move.to(moves[i]) == to) {
+                    return moves[i];
+                }
+            }
+            throw new IllegalArgumentException("Illegal castling move '" + san + "'");
+        }
+
+        int promotion = Bitboard.EMPTY;
+        int equals = move.indexOf('=');
+        if (equals >= 0 && equals + 1 < move.length()) {
+            promotion = pieceType(move.charAt(equals + 1));
+            move = move.substring(0, equals);
+        } else if (move.length() > 2 && PIECE_LETTERS.indexOf(move.charAt(move.length() - 1)) > 0) {
+            // some writers leave out the '=' in "e8Q"
+            promotion = pieceType(move.charAt(move.length() - 1));
+            move = move.substring(0, move.length() - 1);
+        }
+        int type = Bitboard.PAWN;
+        if (!move.isEmpty() && PIECE_LETTERS.indexOf(move.charAt(0)) >= 0) {
+            type = pieceType(move.charAt(0));
+            move = move.substring(1);
+        }
+        move = move.replace("x", "").replace("-", "");
+        if (move.length() < 2) {
+            throw new IllegalArgumentException("Bad SAN move '" + san + "'");
+        }
+        int to = square(move.substring(move.length() - 2), san);
+        String from = move.substring(0, move.length() - 2);
+        int fromFile = -1;
+        int fromRank = -1;
+        for (char c : from.toCharArray()) {
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else {
+                throw new IllegalArgumentException("Bad SAN move '" + san + "'");
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int candidate = moves[i];
+            int start = Move.from(candidate);
+            if (Move.to(candidate) != to || Bitboard.typeOf(board.pieceAt(start)) != type
+                    || Move.promotion(candidate) != promotion
+                    || (fromFile >= 0 && (start & 7) != fromFile)
+                    || (fromRank >= 0 && (start >>> 3) != fromRank)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new IllegalArgumentException("Ambiguous SAN move '" + san + "'");
+            }
+            found = candidate;
+        }
+        if (found == Move.NONE) {
+            throw new IllegalArgumentException("Illegal SAN move '" + san + "'");
+        }
+        return found;
+    }
+
+    private static int pieceType(char letter) {
+        return switch (letter) {
+            case 'K' -> Bitboard.KING;
+            case 'Q' -> Bitboard.QUEEN;
+            case 'B' -> Bitboard.BISHOP;
+            case 'N' -> Bitboard.KNIGHT;
+            case 'R' -> Bitboard.ROOK;
+            default -> throw new IllegalArgumentException("Bad piece letter '" + letter + "'");
+        };
+    }
+
+    private static int square(String name, String san) {
+        char file = name.charAt(0);
+        char rank = name.charAt(1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            throw new IllegalArgumentException("Bad SAN move '" + san + "'");
+        }
+        return (rank - '1') * 8 + (file - 'a');
+    }
+}
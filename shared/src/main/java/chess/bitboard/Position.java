@@ -0,0 +1,172 @@
+package chess.bitboard;
+
+import chess.ChessGame;
+
+/**
+ * A standalone position for playing out packed {@link Move}s quickly, for
+ * perft and search.
+ * <p>
+ * It works on its own copy of a game's {@link Bitboard} and keeps its undo
+ * information in fixed arrays. Making and unmaking moves therefore never
+ * allocates and never touches the game's {@code ChessPiece} grid. The
+ * castling rights and en passant square are two small ints beside the board,
+ * saved on the same stacks as the captured pieces.
+ */
+public class Position {
+    /**
+     * Deepest line of moves a position can hold before unmaking
+     */
+    public static final int MAX_PLY = 256;
+
+    private final Bitboard board;
+    private int side;
+    private int castling;
+    private int enPassant;
+    private int ply;
+    private final int[] moveStack = new int[MAX_PLY];
+    private final int[] capturedStack = new int[MAX_PLY];
+    private final int[] castlingStack = new int[MAX_PLY];
+    private final int[] enPassantStack = new int[MAX_PLY];
+    private final MoveGenerator generator = new MoveGenerator();
+
+    /**
+     * A position with no castling rights and no en passant square
+     */
+    public Position(Bitboard board, int side) {
+        this(board, side, Castling.NONE, Bitboard.EMPTY);
+    }
+
+    /**
+     * @param castling  {@link Castling} rights of both sides
+     * @param enPassant the square a pawn that just moved two squares passed over, or {@link Bitboard#EMPTY}
+     */
+    public Position(Bitboard board, int side, int castling, int enPassant) {
+        this.board = new Bitboard(board);
+        this.side = side;
+        this.castling = castling;
+        this.enPassant = enPassant;
+    }
+
+    /**
+     * Copies another position as it stands, without the moves that led to it
+     */
+    public Position(Position other) {
+        this(other.board, other.side, other.castling, other.enPassant);
+    }
+
+    /**
+     * @return a position holding a copy of the game's board, with the same side to move,
+     * castling rights and en passant square
+     */
+    public static Position of(ChessGame game) {
+        return new Position(game.getBoard().getBitboard(), Bitboard.color(game.getTeamTurn()),
+                game.getCastlingRights(), game.getEnPassantSquare());
+    }
+
+    public Bitboard board() {
+        return board;
+    }
+
+    /**
+     * @return {@link Bitboard#WHITE} or {@link Bitboard#BLACK}
+     */
+    public int side() {
+        return side;
+    }
+
+    /**
+     * @return how many moves have been made and not yet unmade
+     */
+    public int ply() {
+        return ply;
+    }
+
+    /**
+     * @return {@link Castling} rights of both sides
+     */
+    public int castling() {
+        return castling;
+    }
+
+    /**
+     * @return the square a pawn that just moved two squares passed over, or {@link Bitboard#EMPTY}
+     */
+    public int enPassant() {
+        return enPassant;
+    }
+
+    /**
+     * @return the Zobrist key of the board, side to move, castling rights and en passant square
+     */
+    public long key() {
+        long key = board.key() ^ Zobrist.castling(castling) ^ Zobrist.enPassant(board, enPassant, side);
+        return side == Bitboard.BLACK ? key ^ Zobrist.side() : key;
+    }
+
+    /**
+     * Writes every legal move for the side to move into a buffer
+     *
+     * @param moves  buffer with room for {@link MoveGenerator#MAX_MOVES} past offset
+     * @param offset index to start writing at
+     * @return the number of moves written
+     */
+    public int generate(int[] moves, int offset) {
+        return generator.reset(board, side, castling, enPassant).generate(moves, offset) - offset;
+    }
+
+    public boolean inCheck() {
+        int king = board.kingSquare(side);
+        return king != Bitboard.EMPTY && Attacks.isSquareAttacked(board, king, side ^ 1);
+    }
+
+    /**
+     * @return the piece on the move's target square before it is played, or {@link Bitboard#EMPTY}
+     */
+    public int capturedBy(int move) {
+        return board.pieceAt(Move.capturedSquare(move));
+    }
+
+    /**
+     * Plays a legal move for the side to move
+     */
+    public void make(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = board.remove(from);
+        int promotion = Move.promotion(move);
+        moveStack[ply] = move;
+        capturedStack[ply] = board.remove(Move.capturedSquare(move));
+        castlingStack[ply] = castling;
+        enPassantStack[ply] = enPassant;
+        ply++;
+        board.put(to, promotion == Bitboard.EMPTY ? piece : Bitboard.piece(side, promotion));
+        if (Move.isCastle(move)) {
+            board.put(Move.castlingRookTo(to), board.remove(Move.castlingRookFrom(to)));
+        }
+        castling = Castling.afterMove(castling, from, to);
+        enPassant = Move.isDoublePush(move) ? (from + to) >>> 1 : Bitboard.EMPTY;
+        side ^= 1;
+    }
+
+    /**
+     * Takes back the last move made
+     */
+    public void unmake() {
+        ply--;
+        int move = moveStack[ply];
+        int captured = capturedStack[ply];
+        side ^= 1;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = board.remove(to);
+        board.put(from, Move.isPromotion(move) ? Bitboard.piece(side, Bitboard.PAWN) : piece);
+        if (captured != Bitboard.EMPTY) {
+            board.put(Move.capturedSquare(move), captured);
+        }
+        if (Move.isCastle(move)) {
+            board.put(Move.castlingRookFrom(to), board.remove(Move.castlingRookTo(to)));
+        }
+        castling = castlingStack[ply];
+        enPassant = enPassantStack[ply];
+    }
+}
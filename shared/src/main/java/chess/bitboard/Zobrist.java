@@ -0,0 +1,114 @@
+package chess.bitboard;
+
+import chess.ChessGame;
+
+/**
+ * Random 64-bit keys for Zobrist position hashing.
+ * <p>
+ * A position's key is the XOR of one key per piece on its square, plus keys
+ * for the side to move, the castling rights, the en passant file and the
+ * game state. Making a move only has to XOR the keys that changed. The
+ * keys come from a fixed seed, so a position hashes to the same value in
+ * every JVM and a stored key stays valid across restarts.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x2F0C_4A1E_5EED_C0DEL;
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long SIDE;
+    private static final long[] STATE = new long[ChessGame.GameState.values().length];
+    // states there were when the state keys were first drawn; keys for any added since are drawn last
+    private static final int FIRST_STATES = 8;
+    // one key per combination of the four rights, so a whole set of rights costs one lookup
+    private static final long[] CASTLING = new long[Castling.ALL + 1];
+    private static final long[] EN_PASSANT = new long[8];
+
+    static {
+        long[] state = {SEED};
+        for (long[] piece : PIECE_SQUARE) {
+            for (int sq = 0; sq < 64; sq++) {
+                piece[sq] = next(state);
+            }
+        }
+        SIDE = next(state);
+        // index 0 is the normal, in-progress state, which leaves the key alone
+        for (int i = 1; i < FIRST_STATES; i++) {
+            long key = next(state);
+            if (i < STATE.length) {
+                STATE[i] = key;
+            }
+        }
+        // drawn after the older keys, so adding these left every earlier key as it was
+        long[] rights = new long[4];
+        for (int i = 0; i < rights.length; i++) {
+            rights[i] = next(state);
+        }
+        for (int set = 0; set < CASTLING.length; set++) {
+            for (int i = 0; i < rights.length; i++) {
+                if ((set & 1 << i) != 0) {
+                    CASTLING[set] ^= rights[i];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT.length; file++) {
+            EN_PASSANT[file] = next(state);
+        }
+        for (int i = FIRST_STATES; i < STATE.length; i++) {
+            STATE[i] = next(state);
+        }
+    }
+
+    private Zobrist() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated.");
+    }
+
+    // SplitMix64, spelled out so the keys never depend on the JDK's generators
+    private static long next(long[] state) {
+        long z = (state[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long piece(int piece, int square) {
+        return PIECE_SQUARE[piece][square];
+    }
+
+    /**
+     * @return the key XORed in when black is to move
+     */
+    public static long side() {
+        return SIDE;
+    }
+
+    /**
+     * @return the key for a set of {@link Castling} rights, 0 for none
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * The key for an en passant square, which only counts when a pawn of the
+     * side to move could actually take there; otherwise the position is the
+     * same as one where the last move was not a double push
+     *
+     * @param square the square a pawn that just moved two squares passed over, or {@link Bitboard#EMPTY}
+     * @param side   the side to move
+     * @return the key for the square's file, or 0
+     */
+    public static long enPassant(Bitboard board, int square, int side) {
+        if (square == Bitboard.EMPTY
+                || (Attacks.pawn(side ^ 1, square) & board.pieces(side, Bitboard.PAWN)) == 0) {
+            return 0L;
+        }
+        return EN_PASSANT[square & 7];
+    }
+
+    /**
+     * @return the key for a {@link ChessGame.GameState} ordinal, 0 for the normal state
+     */
+    public static long state(int ordinal) {
+        return STATE[ordinal];
+    }
+}
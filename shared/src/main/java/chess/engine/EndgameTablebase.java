@@ -0,0 +1,156 @@
+package chess.engine;
+
+import chess.bitboard.Bitboard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Three-piece tablebase (king and queen, rook or pawn against a bare king),
+ * memory-mapped from a file written by {@link TablebaseGenerator}.
+ * <p>
+ * Each table has one entry for every side to move, square of the stronger
+ * side's king, square of the bare king and square of the extra piece,
+ * with the stronger side always white. Positions where black has the extra
+ * piece are looked up with the board flipped. An entry is 0 for a draw (or
+ * a position that cannot happen), or the distance to mate in plies plus
+ * one, which is even for the side to move mating and odd for it being
+ * mated. Entries are packed at as few bits as the longest mate in the
+ * table needs.
+ * <p>
+ * Bare kings, and a king with a lone bishop or knight against a bare king,
+ * are draws and need no table.
+ */
+public class EndgameTablebase implements Tablebase, Closeable {
+    static final int MAGIC = 0x43544231; // "CTB1"
+    static final int HEADER_BYTES = 8;
+    // per table: piece type, bits per entry, offset of the packed entries
+    static final int TABLE_HEADER_BYTES = 12;
+    static final int ENTRIES = 2 * 64 * 64 * 64;
+    static final int MAX_PIECES = 3;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    // by piece type; bits 0 where there is no table
+    private final int[] bits = new int[6];
+    private final int[] offsets = new int[6];
+
+    private EndgameTablebase(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an endgame tablebase");
+        }
+        int tables = buffer.getInt(4);
+        if (HEADER_BYTES + (long) tables * TABLE_HEADER_BYTES > buffer.capacity()) {
+            throw new IOException("Endgame tablebase is truncated");
+        }
+        for (int i = 0; i < tables; i++) {
+            int at = HEADER_BYTES + i * TABLE_HEADER_BYTES;
+            int type = buffer.getInt(at);
+            int width = buffer.getInt(at + 4);
+            int offset = buffer.getInt(at + 8);
+            if (type < 0 || type >= 6 || width < 1 || width > 8
+                    || offset + packedBytes(width) > (long) buffer.capacity()) {
+                throw new IOException("Endgame tablebase has a bad table header");
+            }
+            bits[type] = width;
+            offsets[type] = offset;
+        }
+    }
+
+    /**
+     * Maps a tablebase file into memory
+     *
+     * @throws IOException if the file cannot be read or is not a tablebase
+     */
+    public static EndgameTablebase open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new EndgameTablebase(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return True if the file has a table for a king and a piece of this type against a bare king
+     */
+    public boolean hasTable(int type) {
+        return bits[type] != 0;
+    }
+
+    @Override
+    public int maxPieces() {
+        return MAX_PIECES;
+    }
+
+    @Override
+    public Probe probe(Bitboard board, int side) {
+        long occupied = board.occupied();
+        int count = Long.bitCount(occupied);
+        if (count == 2) {
+            return Probe.DRAW;
+        }
+        if (count != 3) {
+            return null;
+        }
+        long extra = occupied & ~board.pieces(Bitboard.WHITE, Bitboard.KING) & ~board.pieces(Bitboard.BLACK, Bitboard.KING);
+        int square = Long.numberOfTrailingZeros(extra);
+        int piece = board.pieceAt(square);
+        int type = Bitboard.typeOf(piece);
+        if (type == Bitboard.BISHOP || type == Bitboard.KNIGHT) {
+            return Probe.DRAW;
+        }
+        if (!hasTable(type)) {
+            return null;
+        }
+        int strong = Bitboard.colorOf(piece);
+        // tables have white as the stronger side, so black's pieces are looked up from white's side of the board
+        int flip = strong == Bitboard.WHITE ? 0 : 56;
+        int value = read(type, index(side ^ strong,
+                board.kingSquare(strong) ^ flip, board.kingSquare(strong ^ 1) ^ flip, square ^ flip));
+        if (value == 0) {
+            return Probe.DRAW;
+        }
+        int distance = value - 1;
+        return new Probe((distance & 1) == 1 ? Result.WIN : Result.LOSS, distance);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // the mapping itself is released when the buffer is garbage collected
+        channel.close();
+    }
+
+    /**
+     * @param side        side to move, white being the stronger side
+     * @param strongKing  square of the king with the extra piece
+     * @param weakKing    square of the bare king
+     * @param pieceSquare square of the extra piece
+     */
+    static int index(int side, int strongKing, int weakKing, int pieceSquare) {
+        return ((side * 64 + strongKing) * 64 + weakKing) * 64 + pieceSquare;
+    }
+
+    /**
+     * @return bytes of packed entries at a width, with one spare so every entry can be read as a short
+     */
+    static int packedBytes(int width) {
+        return (int) (((long) ENTRIES * width + 7) / 8) + 1;
+    }
+
+    private int read(int type, int index) {
+        int width = bits[type];
+        long bit = (long) index * width;
+        int word = buffer.getShort(offsets[type] + (int) (bit >>> 3)) & 0xFFFF;
+        return (word >>> (16 - (int) (bit & 7) - width)) & ((1 << width) - 1);
+    }
+}
@@ -0,0 +1,166 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.bitboard.Position;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Searches on several threads at once with Lazy SMP: every thread searches
+ * the same root position and they cooperate only through a shared
+ * {@link TranspositionTable}.
+ * <p>
+ * The calling thread runs the main search and its result is the answer.
+ * Helpers run on an executor, start at staggered depths and break move
+ * ordering ties differently, so between them they fill the table with
+ * positions the main search reaches soon after. They are stopped as soon
+ * as the main search finishes.
+ * <p>
+ * The number of threads one search may use is the engine's per-game
+ * budget. Engines can share a table and a helper pool so a server can cap
+ * the total threads it spends on all the games it is searching for.
+ */
+public class Engine implements AutoCloseable {
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+    private final boolean ownsHelpers;
+    private final Search[] searches;
+    private volatile AtomicBoolean abort = new AtomicBoolean();
+
+    /**
+     * Creates an engine with its own table and helper threads
+     *
+     * @param threads        threads per search, including the caller's
+     * @param tableMegabytes transposition table size
+     */
+    public Engine(int threads, int tableMegabytes) {
+        this(threads, new TranspositionTable(tableMegabytes),
+                threads > 1 ? Executors.newFixedThreadPool(threads - 1, Engine::helperThread) : null, true);
+    }
+
+    /**
+     * Creates an engine that draws on a shared table and helper pool
+     *
+     * @param threads per-game budget: threads per search, including the caller's
+     * @param table   table to share with other engines
+     * @param helpers pool to run helper searches on; it is not shut down by {@link #close()}
+     */
+    public Engine(int threads, TranspositionTable table, ExecutorService helpers) {
+        this(threads, table, helpers, false);
+    }
+
+    private Engine(int threads, TranspositionTable table, ExecutorService helpers, boolean ownsHelpers) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("An engine needs at least one thread");
+        }
+        if (threads > 1 && helpers == null) {
+            throw new IllegalArgumentException("Helper threads need an executor to run on");
+        }
+        this.table = table;
+        this.helpers = helpers;
+        this.ownsHelpers = ownsHelpers;
+        this.searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+    }
+
+    public int threads() {
+        return searches.length;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+
+    /**
+     * Lets every thread's search stop at positions the tablebase covers
+     *
+     * @param tablebase tablebase to probe, or null for none
+     */
+    public synchronized void setTablebase(Tablebase tablebase) {
+        for (Search search : searches) {
+            search.setTablebase(tablebase);
+        }
+    }
+
+    /**
+     * Searches the game's current position on all of this engine's threads.
+     * An engine runs one search at a time; other callers wait their turn.
+     *
+     * @param game   position to search, which is left unchanged
+     * @param limits when to stop; a node limit applies to the main search alone
+     * @return the main search's result, with the nodes of every thread added up
+     */
+    public synchronized SearchResult search(ChessGame game, SearchLimits limits) {
+        Position root = Position.of(game);
+        AtomicBoolean stop = new AtomicBoolean();
+        abort = stop;
+        table.newSearch();
+
+        Future<?>[] running = new Future<?>[searches.length];
+        // a helper still queued behind other engines' work when the main search ends is claimed here and never runs
+        AtomicBoolean[] claimed = new AtomicBoolean[searches.length];
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            AtomicBoolean claim = new AtomicBoolean();
+            int number = i;
+            Position copy = new Position(root);
+            claimed[i] = claim;
+            running[i] = helpers.submit(() -> {
+                if (claim.compareAndSet(false, true)) {
+                    helper.run(copy, limits, stop, number);
+                }
+            });
+        }
+        SearchResult main;
+        try {
+            main = searches[0].run(root, limits, stop, 0);
+        } finally {
+            stop.set(true);
+        }
+
+        long nodes = main.nodes();
+        for (int i = 1; i < searches.length; i++) {
+            if (claimed[i].compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                running[i].get();
+                nodes += searches[i].nodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+        return new SearchResult(main.bestMove(), main.score(), main.depth(), nodes, main.principalVariation());
+    }
+
+    /**
+     * Asks the running search, if any, to stop and return what it has
+     */
+    public void stop() {
+        abort.set(true);
+    }
+
+    @Override
+    public void close() {
+        stop();
+        if (ownsHelpers && helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static Thread helperThread(Runnable task) {
+        Thread thread = new Thread(task, "engine-helper");
+        // helpers never hold anything that would need them to finish before the JVM exits
+        thread.setDaemon(true);
+        return thread;
+    }
+}
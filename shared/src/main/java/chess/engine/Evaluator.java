@@ -0,0 +1,36 @@
+package chess.engine;
+
+import chess.bitboard.Bitboard;
+
+/**
+ * Static evaluation of a position, kept up to date piece by piece.
+ * <p>
+ * A {@link chess.bitboard.Position} that has an evaluator attached reports
+ * every piece it adds or removes while making and unmaking moves, so the
+ * evaluator only ever adjusts running totals and {@link #evaluate(int)}
+ * costs the same no matter how many pieces are on the board. An evaluator
+ * holds the totals for one position, so each searching thread needs its
+ * own.
+ */
+public interface Evaluator {
+    /**
+     * Recomputes the totals from scratch for a board
+     */
+    void reset(Bitboard board);
+
+    /**
+     * A piece was put on an empty square
+     */
+    void add(int piece, int square);
+
+    /**
+     * A piece was taken off its square
+     */
+    void remove(int piece, int square);
+
+    /**
+     * @param side {@link Bitboard#WHITE} or {@link Bitboard#BLACK}
+     * @return the score in centipawns from the given side's point of view
+     */
+    int evaluate(int side);
+}
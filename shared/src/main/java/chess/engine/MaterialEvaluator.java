@@ -0,0 +1,51 @@
+package chess.engine;
+
+import chess.bitboard.Bitboard;
+
+/**
+ * Counts material and nothing else. It is the baseline that other
+ * evaluators are measured against.
+ */
+public class MaterialEvaluator implements Evaluator {
+    private static final int[] VALUES = new int[12];
+
+    static {
+        int[] white = new int[6];
+        white[Bitboard.KING] = 0;
+        white[Bitboard.QUEEN] = 900;
+        white[Bitboard.BISHOP] = 330;
+        white[Bitboard.KNIGHT] = 320;
+        white[Bitboard.ROOK] = 500;
+        white[Bitboard.PAWN] = 100;
+        for (int type = 0; type < 6; type++) {
+            VALUES[Bitboard.piece(Bitboard.WHITE, type)] = white[type];
+            VALUES[Bitboard.piece(Bitboard.BLACK, type)] = -white[type];
+        }
+    }
+
+    // white's material minus black's
+    private int balance;
+
+    @Override
+    public void reset(Bitboard board) {
+        balance = 0;
+        for (int piece = 0; piece < 12; piece++) {
+            balance += VALUES[piece] * Long.bitCount(board.pieces(piece));
+        }
+    }
+
+    @Override
+    public void add(int piece, int square) {
+        balance += VALUES[piece];
+    }
+
+    @Override
+    public void remove(int piece, int square) {
+        balance -= VALUES[piece];
+    }
+
+    @Override
+    public int evaluate(int side) {
+        return side == Bitboard.WHITE ? balance : -balance;
+    }
+}
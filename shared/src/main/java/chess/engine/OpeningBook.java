@@ -0,0 +1,199 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.bitboard.Move;
+import chess.bitboard.Position;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Read-only opening book, memory-mapped from a file written by
+ * {@link OpeningBookBuilder}.
+ * <p>
+ * The file is a header, a table of fixed-size entries sorted by position
+ * key and then by weight, and a table of opening names. Each entry holds a
+ * position key, a book move, how many games played it and the index of the
+ * position's opening name. Lookups binary search the mapped entries, so
+ * opening a book reads nothing but the header and the book takes no heap
+ * however large it is.
+ * <p>
+ * Positions are keyed by {@link Position#key()}: the pieces, the side to
+ * move, the castling rights and the en passant file, not the game state.
+ */
+public class OpeningBook implements Closeable {
+    // bumped whenever Position#key() changes, since a book keyed the old way would just miss every lookup
+    static final int MAGIC = 0x43424B32; // "CBK2"
+    // books from before castling rights and the en passant file were part of the key
+    private static final int STALE_MAGIC = 0x43424B31; // "CBK1"
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+    static final int NO_NAME = 0xFFFF;
+
+    /**
+     * A move the book knows for a position
+     *
+     * @param weight how many of the book's games played it
+     */
+    public record BookMove(ChessMove move, int weight) {
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int entries;
+    private final int names;
+    // where the name offset table starts; the names themselves follow it
+    private final int namesStart;
+
+    private OpeningBook(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.capacity() >= HEADER_BYTES && buffer.getInt(0) == STALE_MAGIC) {
+            throw new IOException("Opening book was built with older position keys; rebuild it");
+        }
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an opening book");
+        }
+        this.entries = buffer.getInt(4);
+        this.names = buffer.getInt(8);
+        this.namesStart = HEADER_BYTES + entries * ENTRY_BYTES;
+        if ((long) namesStart + (long) names * Integer.BYTES > buffer.capacity()) {
+            throw new IOException("Opening book is truncated");
+        }
+    }
+
+    /**
+     * Maps a book file into memory
+     *
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new OpeningBook(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return how many position and move pairs the book holds
+     */
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * @return the book moves for the game's position, most played first, or an empty list
+     */
+    public List<BookMove> moves(ChessGame game) {
+        return moves(Position.of(game).key());
+    }
+
+    /**
+     * @return the book moves for a position key, most played first, or an empty list
+     */
+    public List<BookMove> moves(long key) {
+        List<BookMove> moves = new ArrayList<>();
+        for (int i = firstEntry(key); i < entries && keyAt(i) == key; i++) {
+            int move = buffer.getShort(entryOffset(i) + 8) & 0xFFFF;
+            if (move != Move.NONE) {
+                moves.add(new BookMove(Move.toChessMove(move), buffer.getShort(entryOffset(i) + 10) & 0xFFFF));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Picks a book move at random, weighted by how often it was played
+     *
+     * @return the move, or null if the book has none for the position
+     */
+    public ChessMove pick(ChessGame game, Random random) {
+        List<BookMove> moves = moves(game);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.weight();
+        }
+        if (total == 0) {
+            return null;
+        }
+        int roll = random.nextInt(total);
+        for (BookMove move : moves) {
+            roll -= move.weight();
+            if (roll < 0) {
+                return move.move();
+            }
+        }
+        return moves.getLast().move();
+    }
+
+    /**
+     * @return the opening name of the game's position, or null if the book does not name it
+     */
+    public String name(ChessGame game) {
+        return name(Position.of(game).key());
+    }
+
+    /**
+     * @return the opening name of a position key, or null if the book does not name it
+     */
+    public String name(long key) {
+        int i = firstEntry(key);
+        if (i >= entries || keyAt(i) != key) {
+            return null;
+        }
+        int index = buffer.getShort(entryOffset(i) + 12) & 0xFFFF;
+        if (index == NO_NAME || index >= names) {
+            return null;
+        }
+        int start = buffer.getInt(namesStart + index * Integer.BYTES);
+        int length = buffer.getShort(start) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(start + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // the mapping itself is released when the buffer is garbage collected
+        channel.close();
+    }
+
+    /**
+     * @return the index of the first entry whose key is not below the given one
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int entry) {
+        return buffer.getLong(entryOffset(entry));
+    }
+
+    private static int entryOffset(int entry) {
+        return HEADER_BYTES + entry * ENTRY_BYTES;
+    }
+}
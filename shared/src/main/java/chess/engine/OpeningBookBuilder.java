@@ -0,0 +1,182 @@
+package chess.engine;
+
+import chess.bitboard.Fen;
+import chess.bitboard.Move;
+import chess.bitboard.Pgn;
+import chess.bitboard.Position;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an {@link OpeningBook} file offline from PGN games.
+ * <p>
+ * Every move of every game up to a ply limit is counted against the
+ * position it was played from. A game with an "Opening" tag also names the
+ * position its main line ends in, so a PGN file of named opening lines
+ * (an ECO file, say) supplies the names while game collections supply the
+ * moves and weights. A game stops counting at its first move that cannot be
+ * read or is not legal.
+ * <p>
+ * Run {@link #main(String[])} with an output file, a ply limit and any
+ * number of PGN files.
+ */
+public class OpeningBookBuilder {
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final int maxPly;
+    // position key -> packed move -> times played
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+    private final Map<Long, String> positionNames = new HashMap<>();
+    private int games;
+
+    /**
+     * @param maxPly how many plies from the start of each game to take into the book
+     */
+    public OpeningBookBuilder(int maxPly) {
+        this.maxPly = maxPly;
+    }
+
+    /**
+     * Adds every game in a PGN stream
+     */
+    public void addGames(BufferedReader reader) throws IOException {
+        Pgn.Game game;
+        while ((game = Pgn.read(reader)) != null) {
+            addGame(game);
+        }
+    }
+
+    /**
+     * Adds one game's opening moves, and its opening name if it has one
+     */
+    public void addGame(Pgn.Game game) {
+        String fen = game.tags().getOrDefault("FEN", Fen.STARTING_POSITION);
+        Position position;
+        try {
+            position = Position.of(Fen.parse(fen));
+        } catch (IllegalArgumentException ex) {
+            return;
+        }
+        games++;
+        int ply = 0;
+        for (String san : game.moves()) {
+            if (ply >= maxPly) {
+                break;
+            }
+            int move;
+            try {
+                move = Pgn.parseSan(position, san);
+            } catch (IllegalArgumentException ex) {
+                break;
+            }
+            counts.computeIfAbsent(position.key(), k -> new HashMap<>()).merge(Move.key(move), 1, Integer::sum);
+            position.make(move);
+            ply++;
+        }
+        String name = game.tags().get("Opening");
+        if (name != null && !name.isBlank()) {
+            String variation = game.tags().get("Variation");
+            positionNames.put(position.key(), variation == null || variation.isBlank() ? name : name + ": " + variation);
+            // a named position needs an entry even if no game continued from it
+            counts.computeIfAbsent(position.key(), k -> new HashMap<>());
+        }
+    }
+
+    /**
+     * @return how many games have been added
+     */
+    public int games() {
+        return games;
+    }
+
+    /**
+     * Writes the book, sorted for binary search
+     */
+    public void write(Path file) throws IOException {
+        List<Long> keys = new ArrayList<>(counts.keySet());
+        keys.sort(Long::compareUnsigned);
+        Map<String, Integer> nameIndexes = new LinkedHashMap<>();
+        int entries = 0;
+        for (Long key : keys) {
+            entries += Math.max(1, counts.get(key).size());
+            String name = positionNames.get(key);
+            if (name != null) {
+                nameIndexes.putIfAbsent(name, nameIndexes.size());
+            }
+        }
+        if (nameIndexes.size() >= OpeningBook.NO_NAME) {
+            throw new IOException("Too many opening names for one book");
+        }
+
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(entries);
+            out.writeInt(nameIndexes.size());
+            // the ply limit is only a note for whoever inspects the file
+            out.writeInt(maxPly);
+            for (Long key : keys) {
+                String name = positionNames.get(key);
+                int nameIndex = name == null ? OpeningBook.NO_NAME : nameIndexes.get(name);
+                List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(counts.get(key).entrySet());
+                moves.sort((a, b) -> b.getValue() - a.getValue());
+                if (moves.isEmpty()) {
+                    writeEntry(out, key, Move.NONE, 0, nameIndex);
+                }
+                for (Map.Entry<Integer, Integer> move : moves) {
+                    writeEntry(out, key, move.getKey(), Math.min(move.getValue(), MAX_WEIGHT), nameIndex);
+                }
+            }
+            List<byte[]> encoded = new ArrayList<>();
+            for (String name : nameIndexes.keySet()) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes.length > 0xFFFF ? Arrays.copyOf(bytes, 0xFFFF) : bytes);
+            }
+            int offset = OpeningBook.HEADER_BYTES + entries * OpeningBook.ENTRY_BYTES + encoded.size() * Integer.BYTES;
+            for (byte[] bytes : encoded) {
+                out.writeInt(offset);
+                offset += 2 + bytes.length;
+            }
+            for (byte[] bytes : encoded) {
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, long key, int move, int weight, int nameIndex) throws IOException {
+        out.writeLong(key);
+        out.writeShort(move);
+        out.writeShort(weight);
+        out.writeShort(nameIndex);
+        out.writeShort(0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: OpeningBookBuilder <book file> <max ply> <pgn file>...");
+            System.exit(1);
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]));
+        for (int i = 2; i < args.length; i++) {
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(args[i]), StandardCharsets.UTF_8)) {
+                builder.addGames(reader);
+            }
+        }
+        builder.write(Path.of(args[0]));
+        System.out.printf("%d games written to %s%n", builder.games(), args[0]);
+    }
+}
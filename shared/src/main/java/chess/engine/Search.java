@@ -0,0 +1,554 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.bitboard.Bitboard;
+import chess.bitboard.Move;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds a move for the side to move with negamax alpha-beta and iterative
+ * deepening.
+ * <p>
+ * The search plays moves on its own {@link Position}, so the game it is
+ * given is never touched. Positions already searched deep enough are
+ * answered from a {@link TranspositionTable}. Otherwise the table's best
+ * move is tried first, then captures, most valuable victim by least
+ * valuable attacker, then quiet moves that caused cutoffs at the same ply
+ * (killers) and then quiet moves by how often they have caused cutoffs
+ * anywhere (history). Leaves are extended with a captures-only quiescence
+ * search.
+ * <p>
+ * A search allocates its buffers once and nothing while it runs. One
+ * instance can be reused for any number of games, but only one search at a
+ * time.
+ */
+public class Search {
+    /**
+     * Deepest iteration a search will start
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * Score for mating on the spot; mate in n plies scores MATE - n
+     */
+    public static final int MATE = 30000;
+
+    /**
+     * Table size used when a search is not given one to share
+     */
+    public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private static final int INFINITY = MATE + 1;
+    // plies the main search and quiescence together may reach
+    private static final int MAX_PLY = Position.MAX_PLY - 1;
+    // how many nodes go by between looks at the clock
+    private static final int CHECK_INTERVAL = 2048;
+
+    // rough piece values, for ordering captures only
+    private static final int[] VALUES = new int[6];
+
+    static {
+        VALUES[Bitboard.KING] = 0;
+        VALUES[Bitboard.QUEEN] = 900;
+        VALUES[Bitboard.BISHOP] = 330;
+        VALUES[Bitboard.KNIGHT] = 320;
+        VALUES[Bitboard.ROOK] = 500;
+        VALUES[Bitboard.PAWN] = 100;
+    }
+
+    // ordering bands, so every capture sorts above every killer and every killer above any history score
+    private static final int HASH_MOVE_SCORE = 1 << 29;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int HISTORY_MAX = 1 << 26;
+
+    private final int[][] moves = new int[Position.MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] orderScores = new int[Position.MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[Position.MAX_PLY][2];
+    private final int[][] history = new int[12][64];
+    // triangular principal variation table: pv[ply] holds the best line found from that ply
+    private final int[][] pv = new int[Position.MAX_PLY][Position.MAX_PLY];
+    private final int[] pvLength = new int[Position.MAX_PLY];
+
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private Tablebase tablebase;
+    private Position position;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    // best move of the last finished iteration, searched first at the root of the next one
+    private int previousBest;
+    // score of the best root move so far in the running iteration
+    private int rootScore;
+    // 0 for a search on its own or the main thread of a parallel one, 1 and up for its helpers
+    private int helper;
+    // raised by stop() or by whoever runs the search; polled along with the clock
+    private volatile AtomicBoolean abort = new AtomicBoolean();
+    private boolean stopped;
+
+    /**
+     * Creates a search with a transposition table of its own
+     */
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates a search that reads and writes a table which may be shared with
+     * other searches, including ones running on other threads
+     */
+    public Search(TranspositionTable table) {
+        this(table, new PieceSquareEvaluator());
+    }
+
+    /**
+     * @param table     table to use, which may be shared with other searches
+     * @param evaluator evaluator for this search alone, since it keeps the running totals of one position
+     */
+    public Search(TranspositionTable table, Evaluator evaluator) {
+        this.table = table;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Lets the search stop at positions a tablebase covers and score them exactly
+     *
+     * @param tablebase tablebase to probe, or null for none
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Searches the game's current position
+     *
+     * @param game   position to search, which is left unchanged
+     * @param limits when to stop
+     * @return the best move found by the deepest finished iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(Position.of(game), limits);
+    }
+
+    /**
+     * Searches the game's current position until the limits are reached or the flag is raised
+     *
+     * @param game   position to search, which is left unchanged
+     * @param limits when to stop
+     * @param stop   flag that ends the search once raised, from any thread; one raised before the search
+     *               starts is still seen, which {@link #stop()} cannot promise
+     * @return the best move found by the deepest finished iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, AtomicBoolean stop) {
+        table.newSearch();
+        return run(Position.of(game), limits, stop, 0);
+    }
+
+    /**
+     * Searches a position, leaving it as it was given
+     *
+     * @param position position to search
+     * @param limits   when to stop
+     * @return the best move found by the deepest finished iteration
+     */
+    public SearchResult search(Position position, SearchLimits limits) {
+        table.newSearch();
+        return run(position, limits, new AtomicBoolean(), 0);
+    }
+
+    /**
+     * Runs one thread's share of a search, without starting a new table generation
+     *
+     * @param abort  flag that stops this search once raised, shared by all threads of a parallel search
+     * @param helper 0 for the main thread, or a helper number that varies the depths and move order
+     */
+    SearchResult run(Position position, SearchLimits limits, AtomicBoolean abort, int helper) {
+        this.position = position;
+        this.abort = abort;
+        this.helper = helper;
+        long start = System.nanoTime();
+        nodes = 0;
+        nodeLimit = limits.nodes() == 0 ? Long.MAX_VALUE : limits.nodes();
+        deadline = limits.millis() == 0 ? Long.MAX_VALUE : start + limits.millis() * 1_000_000;
+        stopped = abort.get();
+        evaluator.reset(position.board());
+        for (int[] pair : killers) {
+            Arrays.fill(pair, Move.NONE);
+        }
+        for (int[] row : history) {
+            Arrays.fill(row, 0);
+        }
+
+        int[] root = moves[0];
+        int rootCount = position.generate(root, 0);
+        if (rootCount == 0) {
+            return new SearchResult(null, position.inCheck() ? -MATE : 0, 0, 0, List.of());
+        }
+
+        int bestMove = root[0];
+        int bestScore = 0;
+        int finished = 0;
+        List<ChessMove> line = List.of(Move.toChessMove(bestMove));
+        // odd helpers skip the first depth, so half the helpers are always an iteration ahead of the rest
+        for (int depth = 1 + (helper & 1); depth <= limits.maxDepth(); depth++) {
+            previousBest = bestMove;
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                // an interrupted iteration is thrown away, unless it is the first and got through a root move
+                if (finished == 0 && pvLength[0] > 0) {
+                    bestMove = pv[0][0];
+                    bestScore = rootScore;
+                    line = principalVariation();
+                }
+                break;
+            }
+            bestScore = score;
+            bestMove = pv[0][0];
+            line = principalVariation();
+            finished = depth;
+            // a forced mate found at this depth will not get any shorter by searching deeper
+            if (isMateScore(score)) {
+                break;
+            }
+            // the next iteration usually takes several times as long as this one did, so skip it if it cannot finish
+            long elapsed = System.nanoTime() - start;
+            if (deadline != Long.MAX_VALUE && start + elapsed * 2 > deadline) {
+                break;
+            }
+        }
+        return new SearchResult(Move.toChessMove(bestMove), bestScore, finished, nodes, line);
+    }
+
+    /**
+     * Asks a running search to stop as soon as it can. It still returns the
+     * result of the last iteration it finished.
+     */
+    public void stop() {
+        abort.set(true);
+    }
+
+    /**
+     * @return positions visited by the current or last search
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) > MATE - Position.MAX_PLY;
+    }
+
+    /**
+     * Mate scores count plies from the root, but the same position can be
+     * reached at any ply, so the table holds them counted from the position
+     */
+    private static int toTable(int score, int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score + ply : score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score - ply : score + ply;
+        }
+        return score;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        boolean inCheck = position.inCheck();
+        // look one move further when in check, so mates and forced lines are not cut off at the horizon
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+        // the root always searches, so there is a best move to report
+        if (ply > 0 && tablebase != null && Long.bitCount(position.board().occupied()) <= tablebase.maxPieces()) {
+            Tablebase.Probe probe = tablebase.probe(position.board(), position.side());
+            if (probe != null) {
+                return switch (probe.result()) {
+                    case WIN -> MATE - ply - probe.distance();
+                    case LOSS -> -MATE + ply + probe.distance();
+                    case DRAW -> 0;
+                };
+            }
+        }
+        long key = position.key();
+        long entry = table.probe(key);
+        int hashMove = ply == 0 ? previousBest : TranspositionTable.move(entry);
+        if (entry != TranspositionTable.MISS && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+        int[] buffer = moves[ply];
+        int count = position.generate(buffer, 0);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (ply >= MAX_DEPTH) {
+            return evaluate();
+        }
+        scoreMoves(ply, count, true, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            int captured = position.capturedBy(move);
+            make(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            unmake(move, captured);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (ply == 0) {
+                        rootScore = score;
+                    }
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                            rememberCutoff(ply, move, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        boolean inCheck = position.inCheck();
+        int[] buffer = moves[ply];
+        int count = position.generate(buffer, 0);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+        // out of check every move gets searched; otherwise the side to move may stand pat on the static score
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluate();
+            if (best >= beta) {
+                return best;
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+            count = keepCapturesAndPromotions(buffer, count);
+        }
+        scoreMoves(ply, count, inCheck, Move.NONE);
+
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            int captured = position.capturedBy(move);
+            make(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            unmake(move, captured);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node and checks the limits every so often
+     *
+     * @return True if the search has to stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if (nodes >= nodeLimit || (nodes % CHECK_INTERVAL == 0 && (abort.get() || System.nanoTime() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private int evaluate() {
+        return evaluator.evaluate(position.side());
+    }
+
+    /**
+     * Makes a move on the position and reports the pieces it moves to the evaluator
+     */
+    private void make(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = position.board().pieceAt(from);
+        int captured = position.capturedBy(move);
+        int promotion = Move.promotion(move);
+        evaluator.remove(piece, from);
+        if (captured != Bitboard.EMPTY) {
+            evaluator.remove(captured, Move.capturedSquare(move));
+        }
+        evaluator.add(promotion == Bitboard.EMPTY ? piece : Bitboard.piece(position.side(), promotion), to);
+        if (Move.isCastle(move)) {
+            int rook = Bitboard.piece(position.side(), Bitboard.ROOK);
+            evaluator.remove(rook, Move.castlingRookFrom(to));
+            evaluator.add(rook, Move.castlingRookTo(to));
+        }
+        position.make(move);
+    }
+
+    /**
+     * Takes back a move made with {@link #make(int)}, given what it captured
+     */
+    private void unmake(int move, int captured) {
+        position.unmake();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = position.board().pieceAt(from);
+        int promotion = Move.promotion(move);
+        evaluator.remove(promotion == Bitboard.EMPTY ? piece : Bitboard.piece(position.side(), promotion), to);
+        if (captured != Bitboard.EMPTY) {
+            evaluator.add(captured, Move.capturedSquare(move));
+        }
+        evaluator.add(piece, from);
+        if (Move.isCastle(move)) {
+            int rook = Bitboard.piece(position.side(), Bitboard.ROOK);
+            evaluator.remove(rook, Move.castlingRookTo(to));
+            evaluator.add(rook, Move.castlingRookFrom(to));
+        }
+    }
+
+    private void scoreMoves(int ply, int count, boolean useQuietOrdering, int hashMove) {
+        int[] buffer = moves[ply];
+        int[] scores = orderScores[ply];
+        Bitboard board = position.board();
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            int piece = board.pieceAt(Move.from(move));
+            if (hashMove != Move.NONE && Move.key(move) == Move.key(hashMove)) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                int victim = Move.isCapture(move) ? VALUES[Bitboard.typeOf(position.capturedBy(move))] : 0;
+                int promotion = Move.isPromotion(move) ? VALUES[Move.promotion(move)] : 0;
+                // most valuable victim first, cheapest attacker breaking ties
+                scores[i] = CAPTURE_SCORE + (victim + promotion) * 16 - VALUES[Bitboard.typeOf(piece)] / 16;
+            } else if (!useQuietOrdering) {
+                scores[i] = 0;
+            } else if (Move.key(move) == Move.key(killers[ply][0])) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (Move.key(move) == Move.key(killers[ply][1])) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = history[piece][Move.to(move)];
+                // helpers break ties among quiet moves differently, so they spread out over the tree
+                if (helper > 0) {
+                    scores[i] += (i * 7 + helper * 13) & 15;
+                }
+            }
+        }
+    }
+
+    /**
+     * Selection sort one step at a time: moves the best scored of the
+     * remaining moves to index i, which is cheap since most nodes cut off
+     * after the first few moves
+     */
+    private int pickMove(int ply, int i, int count) {
+        int[] buffer = moves[ply];
+        int[] scores = orderScores[ply];
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        int move = buffer[best];
+        buffer[best] = buffer[i];
+        buffer[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    private int keepCapturesAndPromotions(int[] buffer, int count) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (Move.isCapture(buffer[i]) || Move.isPromotion(buffer[i])) {
+                buffer[kept++] = buffer[i];
+            }
+        }
+        return kept;
+    }
+
+    private void rememberCutoff(int ply, int move, int depth) {
+        if (Move.key(killers[ply][0]) != Move.key(move)) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int piece = position.board().pieceAt(Move.from(move));
+        int[] row = history[piece];
+        row[Move.to(move)] += depth * depth;
+        // halve everything once a score gets large so old cutoffs fade and nothing reaches the killer band
+        if (row[Move.to(move)] >= HISTORY_MAX) {
+            for (int[] scores : history) {
+                for (int sq = 0; sq < 64; sq++) {
+                    scores[sq] /= 2;
+                }
+            }
+        }
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        pv[ply][ply] = move;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
+
+    private List<ChessMove> principalVariation() {
+        List<ChessMove> line = new ArrayList<>(pvLength[0]);
+        for (int i = 0; i < pvLength[0]; i++) {
+            line.add(Move.toChessMove(pv[0][i]));
+        }
+        return line;
+    }
+}
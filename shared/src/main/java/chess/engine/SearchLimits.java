@@ -0,0 +1,41 @@
+package chess.engine;
+
+/**
+ * How far a {@link Search} may go before it has to answer. Any limit left
+ * at 0 does not apply; the search stops at whichever of the others it hits
+ * first.
+ *
+ * @param depth  deepest iteration to finish, in plies
+ * @param nodes  most positions to visit
+ * @param millis most wall-clock time to spend
+ */
+public record SearchLimits(int depth, long nodes, long millis) {
+
+    public SearchLimits {
+        if (depth < 0 || nodes < 0 || millis < 0) {
+            throw new IllegalArgumentException("Search limits cannot be negative");
+        }
+        if (depth == 0 && nodes == 0 && millis == 0) {
+            throw new IllegalArgumentException("A search needs at least one limit");
+        }
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0);
+    }
+
+    public static SearchLimits millis(long millis) {
+        return new SearchLimits(0, 0, millis);
+    }
+
+    /**
+     * @return the deepest iteration allowed, capped at what the search can hold
+     */
+    public int maxDepth() {
+        return depth == 0 || depth > Search.MAX_DEPTH ? Search.MAX_DEPTH : depth;
+    }
+}
@@ -0,0 +1,32 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * What a {@link Search} settled on after its last finished iteration.
+ *
+ * @param bestMove           move to play, or null if the side to move has none
+ * @param score              centipawns from the side to move's point of view, or a mate score
+ * @param depth              deepest iteration that finished
+ * @param nodes              positions visited, quiescence included
+ * @param principalVariation the line the search expects, starting with bestMove
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, List<ChessMove> principalVariation) {
+
+    public boolean isMate() {
+        return Search.isMateScore(score);
+    }
+
+    /**
+     * @return moves until mate, positive if the side to move mates and negative if it gets mated
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+}
@@ -0,0 +1,42 @@
+package chess.engine;
+
+import chess.bitboard.Bitboard;
+
+/**
+ * Perfect-play results for positions with only a few pieces left.
+ * <p>
+ * A tablebase answers for the positions it covers without searching, so
+ * the search can stop at them and the game can tell when an ending is a
+ * dead draw. {@link EndgameTablebase} reads the tables written by
+ * {@link TablebaseGenerator}; any other source can be plugged in behind
+ * this interface.
+ */
+public interface Tablebase {
+
+    enum Result {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    /**
+     * The outcome of a position with best play
+     *
+     * @param result   from the side to move's point of view
+     * @param distance plies until mate, 0 for a draw or for a side that is already mated
+     */
+    record Probe(Result result, int distance) {
+        public static final Probe DRAW = new Probe(Result.DRAW, 0);
+    }
+
+    /**
+     * @return the most pieces, kings included, a position may have for the tablebase to cover it
+     */
+    int maxPieces();
+
+    /**
+     * @param side {@link Bitboard#WHITE} or {@link Bitboard#BLACK}, whoever is to move
+     * @return the outcome, or null if the position is not covered
+     */
+    Probe probe(Bitboard board, int side);
+}
@@ -0,0 +1,298 @@
+package chess.engine;
+
+import chess.bitboard.Attacks;
+import chess.bitboard.Bitboard;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the {@link EndgameTablebase} tables by retrograde analysis.
+ * <p>
+ * Every legal position with black to move and no legal moves is either
+ * mated (distance 0) or stalemated. From there the generator works
+ * backwards one ply at a time: a position with white to move is won in
+ * n + 1 as soon as one of its moves reaches a black loss in n, and a
+ * position with black to move is lost in n + 1 once the last of its moves
+ * reaches a white win, n being the longest of them. Black keeps a count of
+ * the moves it has not yet seen lost, so each position is only looked at
+ * when one of the positions it leads to is resolved. Whatever is never
+ * resolved is a draw. Moves are taken back ("unmade") from the resolved
+ * position rather than generated forwards from every candidate.
+ * <p>
+ * The king and pawn table also needs the queen and rook tables, since a
+ * pawn that promotes carries on in them.
+ */
+public class TablebaseGenerator {
+    /**
+     * Extra piece of each table, in the order they have to be built
+     */
+    public static final int[] TYPES = {Bitboard.QUEEN, Bitboard.ROOK, Bitboard.PAWN};
+
+    private static final int BLACK_OFFSET = EndgameTablebase.index(Bitboard.BLACK, 0, 0, 0);
+    // remaining count for a black position that can never be lost, through a stalemate or by taking the piece
+    private static final int NEVER_LOST = -1;
+
+    private final Map<Integer, byte[]> tables = new LinkedHashMap<>();
+
+    /**
+     * Generates the table for a king and a piece of this type against a bare king,
+     * and any table it depends on
+     *
+     * @return entries as {@link EndgameTablebase} stores them, one per byte
+     */
+    public byte[] generate(int type) {
+        byte[] table = tables.get(type);
+        if (table != null) {
+            return table;
+        }
+        if (type == Bitboard.PAWN) {
+            generate(Bitboard.QUEEN);
+            generate(Bitboard.ROOK);
+        } else if (type != Bitboard.QUEEN && type != Bitboard.ROOK) {
+            throw new IllegalArgumentException("No table for piece type " + type);
+        }
+        table = retrograde(type);
+        tables.put(type, table);
+        return table;
+    }
+
+    /**
+     * Writes every table generated so far, each packed at the width its longest mate needs
+     */
+    public void write(Path file) throws IOException {
+        int offset = EndgameTablebase.HEADER_BYTES + tables.size() * EndgameTablebase.TABLE_HEADER_BYTES;
+        Map<Integer, Integer> widths = new LinkedHashMap<>();
+        for (Map.Entry<Integer, byte[]> table : tables.entrySet()) {
+            int max = 0;
+            for (byte value : table.getValue()) {
+                max = Math.max(max, value & 0xFF);
+            }
+            widths.put(table.getKey(), Math.max(1, 32 - Integer.numberOfLeadingZeros(max)));
+        }
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(EndgameTablebase.MAGIC);
+            out.writeInt(tables.size());
+            for (Map.Entry<Integer, Integer> width : widths.entrySet()) {
+                out.writeInt(width.getKey());
+                out.writeInt(width.getValue());
+                out.writeInt(offset);
+                offset += EndgameTablebase.packedBytes(width.getValue());
+            }
+            for (Map.Entry<Integer, byte[]> table : tables.entrySet()) {
+                out.write(pack(table.getValue(), widths.get(table.getKey())));
+            }
+        }
+    }
+
+    private static byte[] pack(byte[] values, int width) {
+        byte[] packed = new byte[EndgameTablebase.packedBytes(width)];
+        long bit = 0;
+        for (byte value : values) {
+            int v = value & 0xFF;
+            for (int b = width - 1; b >= 0; b--, bit++) {
+                if ((v >>> b & 1) != 0) {
+                    packed[(int) (bit >>> 3)] |= (byte) (0x80 >>> (bit & 7));
+                }
+            }
+        }
+        return packed;
+    }
+
+    private byte[] retrograde(int type) {
+        byte[] values = new byte[EndgameTablebase.ENTRIES];
+        int[] remaining = new int[BLACK_OFFSET];
+        // promotions win straight into another table, at a distance found there rather than by working backwards
+        byte[] seeds = type == Bitboard.PAWN ? promotionSeeds() : null;
+        int lastSeed = 0;
+
+        for (int wk = 0; wk < 64; wk++) {
+            for (int bk = 0; bk < 64; bk++) {
+                for (int sq = 0; sq < 64; sq++) {
+                    if (!legal(type, Bitboard.BLACK, wk, bk, sq)) {
+                        continue;
+                    }
+                    int index = EndgameTablebase.index(Bitboard.BLACK, wk, bk, sq);
+                    long attacked = Attacks.king(wk) | attacks(type, sq, bit(wk));
+                    long targets = Attacks.king(bk) & ~bit(wk) & ~attacked;
+                    if ((targets & bit(sq)) != 0 || (targets == 0 && !inCheck(type, wk, bk, sq))) {
+                        remaining[index - BLACK_OFFSET] = NEVER_LOST;
+                    } else if (targets == 0) {
+                        values[index] = 1;
+                    } else {
+                        remaining[index - BLACK_OFFSET] = Long.bitCount(targets);
+                    }
+                }
+            }
+        }
+        if (seeds != null) {
+            for (byte seed : seeds) {
+                lastSeed = Math.max(lastSeed, seed & 0xFF);
+            }
+        }
+
+        for (int value = 1; ; value++) {
+            if (value > 255) {
+                throw new IllegalStateException("Mate too long to store");
+            }
+            if (seeds != null && value <= lastSeed) {
+                for (int index = 0; index < BLACK_OFFSET; index++) {
+                    if (seeds[index] == (byte) value && values[index] == 0) {
+                        values[index] = (byte) value;
+                    }
+                }
+            }
+            boolean found = false;
+            for (int index = 0; index < EndgameTablebase.ENTRIES; index++) {
+                if (values[index] != (byte) value) {
+                    continue;
+                }
+                found = true;
+                int sq = index & 63;
+                int bk = index >>> 6 & 63;
+                int wk = index >>> 12 & 63;
+                if (index >= BLACK_OFFSET) {
+                    unmakeWhite(type, values, wk, bk, sq, value);
+                } else {
+                    unmakeBlack(type, values, remaining, wk, bk, sq, value);
+                }
+            }
+            if (!found && value >= lastSeed) {
+                return values;
+            }
+        }
+    }
+
+    /**
+     * Black has lost in value - 1 plies, so every white move leading here wins
+     */
+    private static void unmakeWhite(int type, byte[] values, int wk, int bk, int sq, int value) {
+        long occupied = bit(wk) | bit(bk) | bit(sq);
+        long kingFrom = Attacks.king(wk) & ~occupied;
+        while (kingFrom != 0) {
+            int from = Long.numberOfTrailingZeros(kingFrom);
+            kingFrom &= kingFrom - 1;
+            win(type, values, from, bk, sq, value);
+        }
+        long pieceFrom;
+        if (type == Bitboard.PAWN) {
+            pieceFrom = 0;
+            if (sq >= 16 && (occupied & bit(sq - 8)) == 0) {
+                pieceFrom |= bit(sq - 8);
+                if (sq >>> 3 == 3 && (occupied & bit(sq - 16)) == 0) {
+                    pieceFrom |= bit(sq - 16);
+                }
+            }
+        } else {
+            pieceFrom = attacks(type, sq, occupied) & ~occupied;
+        }
+        while (pieceFrom != 0) {
+            int from = Long.numberOfTrailingZeros(pieceFrom);
+            pieceFrom &= pieceFrom - 1;
+            win(type, values, wk, bk, from, value);
+        }
+    }
+
+    private static void win(int type, byte[] values, int wk, int bk, int sq, int value) {
+        int index = EndgameTablebase.index(Bitboard.WHITE, wk, bk, sq);
+        if (values[index] == 0 && legal(type, Bitboard.WHITE, wk, bk, sq)) {
+            values[index] = (byte) (value + 1);
+        }
+    }
+
+    /**
+     * White has won in value - 1 plies, so every black move leading here is one more losing move
+     */
+    private static void unmakeBlack(int type, byte[] values, int[] remaining, int wk, int bk, int sq, int value) {
+        long kingFrom = Attacks.king(bk) & ~bit(wk) & ~bit(sq);
+        while (kingFrom != 0) {
+            int from = Long.numberOfTrailingZeros(kingFrom);
+            kingFrom &= kingFrom - 1;
+            int index = EndgameTablebase.index(Bitboard.BLACK, wk, from, sq);
+            if (values[index] != 0 || !legal(type, Bitboard.BLACK, wk, from, sq)
+                    || remaining[index - BLACK_OFFSET] == NEVER_LOST) {
+                continue;
+            }
+            // the moves are resolved shortest first, so the last one to be lost is the longest
+            if (--remaining[index - BLACK_OFFSET] == 0) {
+                values[index] = (byte) (value + 1);
+            }
+        }
+    }
+
+    /**
+     * @return for each position with white to move, the value of its fastest promotion to a won position, or 0
+     */
+    private byte[] promotionSeeds() {
+        byte[] seeds = new byte[BLACK_OFFSET];
+        for (int wk = 0; wk < 64; wk++) {
+            for (int bk = 0; bk < 64; bk++) {
+                for (int sq = 48; sq < 56; sq++) {
+                    int to = sq + 8;
+                    if (to == wk || to == bk || !legal(Bitboard.PAWN, Bitboard.WHITE, wk, bk, sq)) {
+                        continue;
+                    }
+                    int best = 0;
+                    for (int promotion : new int[]{Bitboard.QUEEN, Bitboard.ROOK}) {
+                        int after = tables.get(promotion)[EndgameTablebase.index(Bitboard.BLACK, wk, bk, to)] & 0xFF;
+                        // an odd value is black to move and lost
+                        if (after != 0 && (after & 1) == 1 && (best == 0 || after + 1 < best)) {
+                            best = after + 1;
+                        }
+                    }
+                    seeds[EndgameTablebase.index(Bitboard.WHITE, wk, bk, sq)] = (byte) best;
+                }
+            }
+        }
+        return seeds;
+    }
+
+    private static boolean legal(int type, int side, int wk, int bk, int sq) {
+        if (wk == bk || wk == sq || bk == sq || (Attacks.king(wk) & bit(bk)) != 0) {
+            return false;
+        }
+        if (type == Bitboard.PAWN && (sq < 8 || sq >= 56)) {
+            return false;
+        }
+        // with white to move, black cannot be left in check
+        return side == Bitboard.BLACK || !inCheck(type, wk, bk, sq);
+    }
+
+    private static boolean inCheck(int type, int wk, int bk, int sq) {
+        return (attacks(type, sq, bit(wk) | bit(bk)) & bit(bk)) != 0;
+    }
+
+    private static long attacks(int type, int square, long occupied) {
+        if (type == Bitboard.QUEEN) {
+            return Attacks.queen(square, occupied);
+        }
+        if (type == Bitboard.ROOK) {
+            return Attacks.rook(square, occupied);
+        }
+        return Attacks.pawn(Bitboard.WHITE, square);
+    }
+
+    private static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TablebaseGenerator <tablebase file>");
+            System.exit(1);
+        }
+        TablebaseGenerator generator = new TablebaseGenerator();
+        for (int type : TYPES) {
+            generator.generate(type);
+        }
+        generator.write(Path.of(args[0]));
+        System.out.printf("%d tables written to %s%n", TYPES.length, args[0]);
+    }
+}
@@ -0,0 +1,161 @@
+package chess.engine;
+
+import chess.bitboard.Move;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results keyed by 64-bit Zobrist position
+ * keys, safe to share between any number of searching threads.
+ * <p>
+ * Each entry is two longs in one array: the key XORed with the data, then
+ * the data. There are no locks, so two threads writing the same slot can
+ * leave a key word from one write next to a data word from the other. A
+ * probe only trusts an entry whose words XOR back to the key it asked for,
+ * which a torn entry almost never does, so torn entries read as misses
+ * instead of as wrong results.
+ * <p>
+ * The data word packs the best move (its {@link Move#key(int)}) in bits
+ * 0-15, the score in 16-31, the depth in 32-39, the bound in 40-41 and the
+ * search generation in 42-49. The bound is never 0, so a stored entry never
+ * has a data word of 0 and {@link #MISS} can stand for "not found".
+ */
+public class TranspositionTable {
+    /**
+     * Returned by {@link #probe(long)} when the table holds nothing for a key
+     */
+    public static final long MISS = 0L;
+
+    /**
+     * The real score is at most the stored one
+     */
+    public static final int UPPER = 1;
+    /**
+     * The real score is at least the stored one
+     */
+    public static final int LOWER = 2;
+    public static final int EXACT = 3;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final int MAX_GENERATION = 0xFF;
+
+    private final long[] slots;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes memory to use; the entry count is rounded down to a power of two
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("A transposition table needs at least 1 MB");
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        // a Java array tops out just under 2^31 longs
+        entries = Math.min(entries, 1L << 29);
+        this.slots = new long[(int) entries * 2];
+        this.mask = (int) entries - 1;
+    }
+
+    /**
+     * @return how many entries the table can hold
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Marks the start of a new search, so entries left from earlier
+     * searches are replaced ahead of ones from this search
+     */
+    public void newSearch() {
+        generation = (generation + 1) & MAX_GENERATION;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0L);
+    }
+
+    /**
+     * @return the data word stored for a key, or {@link #MISS}
+     */
+    public long probe(long key) {
+        int index = index(key);
+        long data = slots[index + 1];
+        if ((slots[index] ^ data) != key) {
+            return MISS;
+        }
+        return data;
+    }
+
+    /**
+     * Stores a search result, unless the slot holds a deeper result from the
+     * current search
+     *
+     * @param key   position key
+     * @param move  best move found, or {@link Move#NONE}
+     * @param score score relative to this position, with mate scores counted from it
+     * @param depth remaining depth the score was searched to
+     * @param bound {@link #UPPER}, {@link #LOWER} or {@link #EXACT}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = index(key);
+        long old = slots[index + 1];
+        int current = generation;
+        boolean sameKey = (slots[index] ^ old) == key;
+        if (old != MISS && generation(old) == current && depth < depth(old)) {
+            return;
+        }
+        // keep the old move rather than forget it when a shallower result for the same position has none
+        if (move == Move.NONE && sameKey) {
+            move = move(old);
+        }
+        long data = (Move.key(move) & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) (depth & 0xFF) << 32
+                | (long) bound << 40
+                | (long) current << 42;
+        slots[index] = key ^ data;
+        slots[index + 1] = data;
+    }
+
+    /**
+     * @return roughly how full the table is with entries from the current search, in parts per thousand
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = slots[i * 2 + 1];
+            if (data != MISS && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 40) & 3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 42) & MAX_GENERATION;
+    }
+
+    private int index(long key) {
+        // the low bits pick the slot; they are as random as any others in a Zobrist key
+        return ((int) key & mask) << 1;
+    }
+}
@@ -20,7 +20,7 @@ public class BaseMovement {
         int col = position.getColumn();
         int multiplier = 1;
         do {
-            ChessPosition possiblePos = new ChessPosition(8-row+(rowInc * multiplier),
+            ChessPosition possiblePos = ChessPosition.of(8-row+(rowInc * multiplier),
                     1+col+(colInc * multiplier));
             if (isValid(possiblePos)){
                 moveSet.add(new ChessMove(this.position, possiblePos, null));
@@ -2,8 +2,8 @@ package chess.piececalculator;
 
 import chess.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 
 public class PawnRule{
     private ChessBoard board;
@@ -14,72 +14,72 @@ public class PawnRule{
         this.position = position;
     }
     public Collection<ChessMove> moves() {
-        Collection<ChessMove> moveSet = new HashSet<>();
+        Collection<ChessMove> moveSet = new ArrayList<>();
         int row = position.getRow();
         int col = position.getColumn();
         // white piece
         if (board.getPiece(position).getTeamColor() == ChessGame.TeamColor.WHITE){
             // in promotion row
-            if (position.getRow() == 1 && isValid(new ChessPosition(8-row+1, 1+col), false)){
+            if (position.getRow() == 1 && isValid(ChessPosition.of(8-row+1, 1+col), false)){
                 promote(moveSet,false, false);
             }
-            else if (isValid(new ChessPosition(8-row+1, 1+col), false)){
-                moveSet.add(new ChessMove(this.position, new ChessPosition(8-row+1, 1+col), null));
-                if (isValid(new ChessPosition(8-row+2, 1+col), false) && row == 6){
-                    moveSet.add(new ChessMove(this.position, new ChessPosition(8-row+2, 1+col), null));
+            else if (isValid(ChessPosition.of(8-row+1, 1+col), false)){
+                moveSet.add(new ChessMove(this.position, ChessPosition.of(8-row+1, 1+col), null));
+                if (isValid(ChessPosition.of(8-row+2, 1+col), false) && row == 6){
+                    moveSet.add(new ChessMove(this.position, ChessPosition.of(8-row+2, 1+col), null));
                 }
             }
             // diag right
-            ChessPosition potDiagRight = new ChessPosition(8-row+1, 1+col+1);
+            ChessPosition potDiagRight = ChessPosition.of(8-row+1, 1+col+1);
             if (isValid(potDiagRight, true)){
                 if (position.getRow() == 1){
                     promote(moveSet, true, true);
                 }
                 else{
-                    moveSet.add(new ChessMove(this.position, new ChessPosition(8-row+1, 1+col+1), null));
+                    moveSet.add(new ChessMove(this.position, ChessPosition.of(8-row+1, 1+col+1), null));
                 }
             }
             // diag left
-            ChessPosition potDiagLeft = new ChessPosition(8-row+1, 1+col-1);
+            ChessPosition potDiagLeft = ChessPosition.of(8-row+1, 1+col-1);
             if (isValid(potDiagLeft, true)){
                 if (position.getRow() == 1){
                     promote(moveSet, true, false);
                 }
                 else{
-                    moveSet.add(new ChessMove(this.position, new ChessPosition(8-row+1, 1+col-1), null));
+                    moveSet.add(new ChessMove(this.position, ChessPosition.of(8-row+1, 1+col-1), null));
                 }
             }
         }
         // black piece
         else{
             // in promotion row
-            if (position.getRow() == 6 && isValid(new ChessPosition(8-row-1, 1+col), false)){
+            if (position.getRow() == 6 && isValid(ChessPosition.of(8-row-1, 1+col), false)){
                 promote(moveSet,false, false);
             }
-            else if (isValid(new ChessPosition(8-row-1, 1+col), false)){
-                moveSet.add(new ChessMove(this.position, new ChessPosition(8-row-1, 1+col), null));
-                if (isValid(new ChessPosition(8-row-2, 1+col), false) && row == 1){
-                    moveSet.add(new ChessMove(this.position, new ChessPosition(8-row-2, 1+col), null));
+            else if (isValid(ChessPosition.of(8-row-1, 1+col), false)){
+                moveSet.add(new ChessMove(this.position, ChessPosition.of(8-row-1, 1+col), null));
+                if (isValid(ChessPosition.of(8-row-2, 1+col), false) && row == 1){
+                    moveSet.add(new ChessMove(this.position, ChessPosition.of(8-row-2, 1+col), null));
                 }
             }
             // diag right
-            ChessPosition potDiagRight = new ChessPosition(8-row-1, 1+col+1);
+            ChessPosition potDiagRight = ChessPosition.of(8-row-1, 1+col+1);
             if (isValid(potDiagRight, true)){
                 if (position.getRow() == 6){
                     promote(moveSet, true, true);
                 }
                 else{
-                    moveSet.add(new ChessMove(this.position, new ChessPosition(8-row-1, 1+col+1), null));
+                    moveSet.add(new ChessMove(this.position, ChessPosition.of(8-row-1, 1+col+1), null));
                 }
             }
             // diag left
-            ChessPosition potDiagLeft = new ChessPosition(8-row-1, 1+col-1);
+            ChessPosition potDiagLeft = ChessPosition.of(8-row-1, 1+col-1);
             if (isValid(potDiagLeft, true)){
                 if (position.getRow() == 6){
                     promote(moveSet, true, false);
                 }
                 else{
-                    moveSet.add(new ChessMove(this.position, new ChessPosition(8-row-1, 1+col-1), null));
+                    moveSet.add(new ChessMove(this.position, ChessPosition.of(8-row-1, 1+col-1), null));
                 }
             }
         }
@@ -111,27 +111,27 @@ public class PawnRule{
         if (attacking){
             if (right){
                 if (board.getPiece(position).getTeamColor() == ChessGame.TeamColor.WHITE){
-                    end = new ChessPosition(8-row+1, 1+column+1);
+                    end = ChessPosition.of(8-row+1, 1+column+1);
                 }
                 else{
-                    end = new ChessPosition(8-row-1, 1+column+1);
+                    end = ChessPosition.of(8-row-1, 1+column+1);
                 }
             }
             else{
                 if (board.getPiece(position).getTeamColor() == ChessGame.TeamColor.WHITE){
-                    end = new ChessPosition(8-row+1, 1+column-1);
+                    end = ChessPosition.of(8-row+1, 1+column-1);
                 }
                 else{
-                    end = new ChessPosition(8-row-1, 1+column-1);
+                    end = ChessPosition.of(8-row-1, 1+column-1);
                 }
             }
         }
         else{
             if (board.getPiece(position).getTeamColor() == ChessGame.TeamColor.WHITE){
-                end = new ChessPosition(8-row+1, 1+column);
+                end = ChessPosition.of(8-row+1, 1+column);
             }
             else{
-                end = new ChessPosition(8-row-1, 1+column);
+                end = ChessPosition.of(8-row-1, 1+column);
             }
         }
         moveSet.add(new ChessMove(this.position, end, ChessPiece.PieceType.QUEEN));
@@ -0,0 +1,16 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Engine analysis of a game's current position. Moves are in coordinate
+ * notation ("e2e4", "e7e8q") and scores are in centipawns for the side to
+ * move.
+ *
+ * @param bestMove           null if the side to move has no legal move
+ * @param mateIn             moves to mate, negative if the side to move is getting mated, 0 if no mate was found
+ * @param depth              deepest search iteration that finished in time
+ */
+public record AnalysisData(int gameID, String bestMove, int score, int mateIn, int depth, long nodes,
+                           List<String> principalVariation) {
+}
@@ -0,0 +1,30 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Which games a game list shows. Each part narrows the list and they can be combined.
+ *
+ * @param openSeat only games with a seat still free; with a player, only the games that player is waiting in
+ * @param player   only games this user is seated in, or null for anyone's
+ * @param status   only active or only finished games, or null for both
+ */
+public record GameFilter(boolean openSeat, String player, Status status) {
+    public static final GameFilter ALL = new GameFilter(false, null, null);
+
+    public enum Status { ACTIVE, FINISHED }
+
+    public boolean matches(GameData game) {
+        if (status != null) {
+            boolean finished = game.game() != null && game.game().getGameState().isOver();
+            if (finished != (status == Status.FINISHED)) {
+                return false;
+            }
+        }
+        return seated(game.whiteUsername(), game.blackUsername()) || seated(game.blackUsername(), game.whiteUsername());
+    }
+
+    private boolean seated(String seat, String otherSeat) {
+        return (player == null || Objects.equals(player, seat)) && (!openSeat || otherSeat == null);
+    }
+}
@@ -0,0 +1,12 @@
+package model;
+
+import java.util.List;
+
+/**
+ * One page of a game list
+ *
+ * @param pageSize the most games a page holds, after the server applied its default and cap
+ * @param nextCursor pass back to get the page after this one; null on the last page
+ */
+public record GamePage(List<GameSummary> games, int pageSize, String nextCursor) {
+}
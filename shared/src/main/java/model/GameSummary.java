@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * A game as the game list shows it: its name and who is playing, without
+ * the board, which the list never needs.
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName) {
+
+    public static GameSummary of(GameData game) {
+        return new GameSummary(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName());
+    }
+}
@@ -0,0 +1,55 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTrackingTests {
+
+    @Test
+    void kingPositionFollowsTheBoard() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece whiteKing = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        assertNull(board.getKingPos(ChessGame.TeamColor.WHITE));
+
+        board.addPiece(ChessPosition.of(1, 5), whiteKing);
+        assertEquals(ChessPosition.of(1, 5), board.getKingPos(ChessGame.TeamColor.WHITE));
+
+        board.removePiece(ChessPosition.of(1, 5));
+        board.addPiece(ChessPosition.of(8, 8), whiteKing);
+        assertEquals(ChessPosition.of(8, 8), board.getKingPos(ChessGame.TeamColor.WHITE));
+        assertNull(board.getKingPos(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void pieceListsIncludeTheEighthRankAndFile() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        Collection<ChessPosition> black = board.getNumberOfPieces(ChessGame.TeamColor.BLACK);
+        assertEquals(3, black.size());
+        assertTrue(black.contains(ChessPosition.of(8, 8)));
+        assertTrue(black.contains(ChessPosition.of(1, 8)));
+        assertEquals(1, board.getNumberOfPieces(ChessGame.TeamColor.WHITE).size());
+
+        board.removePiece(ChessPosition.of(8, 8));
+        assertEquals(2, board.getNumberOfPieces(ChessGame.TeamColor.BLACK).size());
+    }
+
+    @Test
+    void checkFollowsTheKingAfterMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 6), ChessPosition.of(3, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(2, 7), ChessPosition.of(4, 7), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+        assertTrue(game.kingGettingAttacked(ChessGame.TeamColor.WHITE));
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        assertFalse(game.kingGettingAttacked(ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,97 @@
+package chess;
+
+import chess.bitboard.Fen;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DrawRuleTests {
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+        game.makeMove(move(6, 6, 8, 7));
+    }
+
+    @Test
+    void drawsOnTheThirdRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        assertFalse(game.isThreefoldRepetition());
+        assertEquals(ChessGame.GameState.NORMAL, game.gameState(game, ChessGame.TeamColor.WHITE));
+        shuffleKnights(game);
+        assertTrue(game.isThreefoldRepetition());
+        assertEquals(ChessGame.GameState.THREEFOLD_REPETITION, game.gameState(game, ChessGame.TeamColor.WHITE));
+        assertTrue(ChessGame.GameState.THREEFOLD_REPETITION.endsInDraw());
+    }
+
+    @Test
+    void pawnMovesAndCapturesStartAfresh() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        assertEquals(4, game.getHalfmoveClock());
+        game.makeMove(move(2, 5, 4, 5));
+        assertEquals(0, game.getHalfmoveClock());
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(6, 6, 8, 7));
+        game.makeMove(move(3, 6, 1, 7));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(6, 6, 8, 7));
+        game.makeMove(move(3, 6, 1, 7));
+        // the position after e4 has now come up three times, the starting position never again
+        assertTrue(game.isThreefoldRepetition());
+        assertEquals(8, game.getHalfmoveClock());
+    }
+
+    @Test
+    void fiftyMovesWithoutProgressDraw() throws InvalidMoveException {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertEquals(99, game.getHalfmoveClock());
+        assertFalse(game.isFiftyMoveRule());
+        game.makeMove(move(1, 1, 2, 1));
+        assertTrue(game.isFiftyMoveRule());
+        assertEquals(ChessGame.GameState.FIFTY_MOVE_RULE, game.gameState(game, ChessGame.TeamColor.BLACK));
+
+        // a mate on the hundredth ply still counts as a mate
+        ChessGame mating = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 80");
+        mating.makeMove(move(1, 1, 8, 1));
+        assertEquals(ChessGame.GameState.CHECKMATE, mating.gameState(mating, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void unmakeMovePutsTheHistoryBack() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+        MoveUndo undo = new MoveUndo();
+        game.makeMove(move(7, 5, 5, 5), undo);
+        assertEquals(0, game.getHalfmoveClock());
+        game.unmakeMove(undo);
+        assertEquals(7, game.getHalfmoveClock());
+        game.makeMove(move(6, 6, 8, 7));
+        assertTrue(game.isThreefoldRepetition());
+    }
+
+    @Test
+    void historySurvivesSerialization() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+        ChessGame loaded = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+        assertEquals(7, loaded.getHalfmoveClock());
+        loaded.makeMove(move(6, 6, 8, 7));
+        assertTrue(loaded.isThreefoldRepetition());
+    }
+}
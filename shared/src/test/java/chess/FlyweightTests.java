@@ -0,0 +1,38 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlyweightTests {
+
+    @Test
+    void factoriesReturnSharedInstances() {
+        assertSame(ChessPosition.of(4, 5), ChessPosition.of(4, 5));
+        assertEquals(new ChessPosition(4, 5), ChessPosition.of(4, 5));
+        assertSame(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
+                ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+    }
+
+    @Test
+    void offBoardPositionsStillWork() {
+        ChessPosition offBoard = ChessPosition.of(9, 0);
+        assertEquals(-1, offBoard.getRow());
+        assertEquals(-1, offBoard.getColumn());
+    }
+
+    @Test
+    void deserializedGameUsesSharedInstances() {
+        Gson gson = new Gson();
+        ChessGame game = gson.fromJson(gson.toJson(new ChessGame()), ChessGame.class);
+        assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                game.getBoard().getPiece(ChessPosition.of(1, 4)));
+
+        ChessMove move = new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+        ChessMove copy = gson.fromJson(gson.toJson(move), ChessMove.class);
+        assertSame(ChessPosition.of(2, 5), copy.getStartPosition());
+        assertSame(ChessPosition.of(4, 5), copy.getEndPosition());
+        assertEquals(gson.toJson(move), gson.toJson(copy));
+    }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import chess.bitboard.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCodecTests {
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+
+    private static void assertSameGame(ChessGame expected, ChessGame actual) {
+        assertEquals(expected.getBoard().getBitboard(), actual.getBoard().getBitboard());
+        assertEquals(expected.getTeamTurn(), actual.getTeamTurn());
+        assertEquals(expected.getGameState(), actual.getGameState());
+        assertEquals(expected.getRound(), actual.getRound());
+        assertEquals(expected.getHalfmoveClock(), actual.getHalfmoveClock());
+        assertEquals(expected.getCastlingRights(), actual.getCastlingRights());
+        assertEquals(expected.getEnPassantSquare(), actual.getEnPassantSquare());
+        assertEquals(expected.getPositionKey(), actual.getPositionKey());
+    }
+
+    @Test
+    void startingPositionIsSmall() {
+        ChessGame game = new ChessGame();
+        byte[] bytes = GameCodec.encode(game);
+        assertEquals(30, bytes.length);
+        assertSameGame(game, GameCodec.decode(bytes));
+    }
+
+    @Test
+    void keepsTurnStateAndRuleFlags() throws InvalidMoveException {
+        ChessGame game = Fen.parse("r3k2r/8/8/8/3p4/8/4P3/R3K2R w Kq - 7 30");
+        game.setRound(58);
+        game.makeMove(move(2, 5, 4, 5));
+        game.setGameState(ChessGame.GameState.CHECK);
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        assertSameGame(game, decoded);
+        // the en passant capture is still there to be played
+        decoded.makeMove(move(4, 4, 3, 5));
+        assertNull(decoded.getBoard().getPiece(ChessPosition.of(4, 5)));
+    }
+
+    @Test
+    void keepsTheRepetitionHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(move(1, 7, 3, 6));
+            game.makeMove(move(8, 7, 6, 6));
+            game.makeMove(move(3, 6, 1, 7));
+            if (i == 0) {
+                game.makeMove(move(6, 6, 8, 7));
+            }
+        }
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        assertSameGame(game, decoded);
+        assertFalse(decoded.isThreefoldRepetition());
+        decoded.makeMove(move(6, 6, 8, 7));
+        assertTrue(decoded.isThreefoldRepetition());
+    }
+
+    @Test
+    void rejectsBytesThatAreNotAGame() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(Arrays.copyOf(bytes, 20)));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode("{\"round\":0}".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[0]));
+    }
+}
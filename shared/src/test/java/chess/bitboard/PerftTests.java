@@ -0,0 +1,41 @@
+package chess.bitboard;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTests {
+
+    @ParameterizedTest
+    @EnumSource(PerftSuite.class)
+    void referenceNodeCounts(PerftSuite position) {
+        for (int depth = 1; depth <= position.maxDepth(); depth++) {
+            var perft = new Perft(Fen.parse(position.fen()));
+            assertEquals(position.nodes(depth), perft.perft(depth), position + " at depth " + depth);
+        }
+    }
+
+    @Test
+    void divideSumsToPerft() {
+        Map<String, Long> divide = new Perft(Fen.parse(Fen.STARTING_POSITION)).divide(3);
+        assertEquals(20, divide.size());
+        assertEquals(600, divide.get("e2e4"));
+        assertEquals(8_902, divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void perftRestoresPosition() {
+        ChessGame game = Fen.parse(PerftSuite.MIDDLEGAME.fen());
+        Position position = Position.of(game);
+        long key = position.key();
+        new Perft(position).perft(3);
+        assertEquals(key, position.key());
+        assertEquals(0, position.ply());
+        assertEquals(game.getBoard().getBitboard(), position.board());
+    }
+}
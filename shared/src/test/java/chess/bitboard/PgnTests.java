@@ -0,0 +1,55 @@
+package chess.bitboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgnTests {
+
+    @Test
+    void readsTagsAndMainLine() throws IOException {
+        String pgn = """
+                [Event "Casual"]
+                [Opening "Ruy Lopez"]
+
+                1. e4 {best by test} e5 2. Nf3 (2. f4 exf4) Nc6 3. Bb5 $1 a6 1/2-1/2
+
+                [Event "Second"]
+
+                1. d4 d5 *
+                """;
+        BufferedReader reader = new BufferedReader(new StringReader(pgn));
+        Pgn.Game first = Pgn.read(reader);
+        assertEquals("Ruy Lopez", first.tags().get("Opening"));
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "a6"), first.moves());
+        assertEquals(List.of("d4", "d5"), Pgn.read(reader).moves());
+        assertNull(Pgn.read(reader));
+    }
+
+    @Test
+    void resolvesSanMoves() {
+        Position position = Position.of(Fen.parse(Fen.STARTING_POSITION));
+        assertEquals("g1f3", Move.name(Pgn.parseSan(position, "Nf3")));
+        assertEquals("e2e4", Move.name(Pgn.parseSan(position, "e4")));
+        assertThrows(IllegalArgumentException.class, () -> Pgn.parseSan(position, "e5"));
+        assertThrows(IllegalArgumentException.class, () -> Pgn.parseSan(position, "Zz9"));
+    }
+
+    @Test
+    void resolvesDisambiguationCapturesAndPromotions() {
+        Position knights = Position.of(Fen.parse("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Pgn.parseSan(knights, "Nd2"));
+        assertEquals("b1d2", Move.name(Pgn.parseSan(knights, "Nbd2")));
+        assertEquals("f1d2", Move.name(Pgn.parseSan(knights, "N1fd2")));
+        assertEquals("f1g3", Move.name(Pgn.parseSan(knights, "Ng3+")));
+
+        Position promotions = Position.of(Fen.parse("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N w - - 0 1"));
+        assertEquals("b7a8q", Move.name(Pgn.parseSan(promotions, "bxa8=Q")));
+        assertEquals("b7c8n", Move.name(Pgn.parseSan(promotions, "bxc8N")));
+    }
+}
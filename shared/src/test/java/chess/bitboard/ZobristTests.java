@@ -0,0 +1,97 @@
+package chess.bitboard;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.MoveUndo;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristTests {
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+
+    @Test
+    void transpositionsShareAKey() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(move(1, 7, 3, 6));
+        first.makeMove(move(8, 7, 6, 6));
+        first.makeMove(move(1, 2, 3, 3));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(move(1, 2, 3, 3));
+        second.makeMove(move(8, 7, 6, 6));
+        second.makeMove(move(1, 7, 3, 6));
+
+        assertEquals(first.getPositionKey(), second.getPositionKey());
+        assertNotEquals(new ChessGame().getPositionKey(), first.getPositionKey());
+    }
+
+    @Test
+    void keyCoversSideToMoveAndState() {
+        ChessGame game = new ChessGame();
+        long white = game.getPositionKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertNotEquals(white, game.getPositionKey());
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        game.setGameState(ChessGame.GameState.RESIGNED);
+        assertNotEquals(white, game.getPositionKey());
+    }
+
+    @Test
+    void everyStateHasItsOwnKey() {
+        Set<Long> keys = new HashSet<>();
+        for (ChessGame.GameState state : ChessGame.GameState.values()) {
+            long key = Zobrist.state(state.ordinal());
+            assertEquals(state == ChessGame.GameState.NORMAL, key == 0L);
+            assertTrue(keys.add(key));
+        }
+    }
+
+    @Test
+    void keyCoversCastlingAndEnPassant() throws InvalidMoveException {
+        String board = "r3k2r/8/8/8/3p4/8/4P3/R3K2R w ";
+        long all = Fen.parse(board + "KQkq - 0 1").getPositionKey();
+        assertNotEquals(all, Fen.parse(board + "Kkq - 0 1").getPositionKey());
+        assertNotEquals(all, Fen.parse(board + "- - 0 1").getPositionKey());
+
+        // e3 only counts while the d4 pawn can take on it
+        ChessGame pushed = Fen.parse(board + "KQkq - 0 1");
+        pushed.makeMove(move(2, 5, 4, 5));
+        ChessGame same = Fen.parse("r3k2r/8/8/8/3pP3/8/8/R3K2R b KQkq - 0 1");
+        assertNotEquals(same.getPositionKey(), pushed.getPositionKey());
+        assertEquals(Fen.parse("r3k2r/8/8/8/3pP3/8/8/R3K2R b KQkq e3 0 1").getPositionKey(), pushed.getPositionKey());
+
+        ChessGame quiet = Fen.parse("r3k2r/8/8/8/8/3p4/4P3/R3K2R w KQkq - 0 1");
+        quiet.makeMove(move(2, 5, 4, 5));
+        assertEquals(Fen.parse("r3k2r/8/8/8/4P3/3p4/8/R3K2R b KQkq - 0 1").getPositionKey(), quiet.getPositionKey());
+    }
+
+    @Test
+    void unmakeRestoresKey() {
+        ChessGame game = Fen.parse(PerftSuite.PROMOTIONS.fen());
+        long before = game.getPositionKey();
+        MoveUndo undo = new MoveUndo();
+        for (ChessMove move : MoveGenerator.legalMoves(game.getBoard().getBitboard(), Bitboard.BLACK)) {
+            game.makeMove(move, undo);
+            assertNotEquals(before, game.getPositionKey());
+            game.unmakeMove(undo);
+            assertEquals(before, game.getPositionKey());
+        }
+    }
+
+    @Test
+    void keySurvivesSerialization() {
+        ChessGame game = Fen.parse(PerftSuite.MIDDLEGAME.fen());
+        ChessGame loaded = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+        assertEquals(game.getPositionKey(), loaded.getPositionKey());
+    }
+}
@@ -0,0 +1,59 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.bitboard.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineTests {
+
+    @Test
+    void parallelSearchFindsMate() {
+        try (Engine engine = new Engine(4, 4)) {
+            SearchResult result = engine.search(Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), SearchLimits.depth(4));
+            assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+            assertEquals(1, result.mateIn());
+        }
+    }
+
+    @Test
+    void parallelSearchReturnsALegalMove() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        try (Engine engine = new Engine(3, 4)) {
+            SearchResult result = engine.search(game, SearchLimits.millis(300));
+            assertNotNull(result.bestMove());
+            assertTrue(result.depth() >= 1);
+            assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+        }
+    }
+
+    @Test
+    void enginesShareATableAndPool() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(4);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Engine first = new Engine(3, table, pool);
+            Engine second = new Engine(3, table, pool);
+            SearchResult[] results = new SearchResult[2];
+            Thread other = new Thread(() -> results[1] = second.search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.depth(5)));
+            other.start();
+            results[0] = first.search(Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), SearchLimits.depth(5));
+            other.join();
+            assertEquals(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null), results[0].bestMove());
+            assertEquals(5, results[1].depth());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void needsAtLeastOneThread() {
+        assertThrows(IllegalArgumentException.class, () -> new Engine(0, 1));
+    }
+}
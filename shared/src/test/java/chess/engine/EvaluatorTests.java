@@ -0,0 +1,91 @@
+package chess.engine;
+
+import chess.bitboard.Bitboard;
+import chess.bitboard.Fen;
+import chess.bitboard.Move;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluatorTests {
+
+    private static int evaluate(String fen) {
+        Position position = Position.of(Fen.parse(fen));
+        Evaluator evaluator = new PieceSquareEvaluator();
+        evaluator.reset(position.board());
+        return evaluator.evaluate(position.side());
+    }
+
+    @Test
+    void startingPositionIsEven() {
+        assertEquals(0, evaluate(Fen.STARTING_POSITION));
+    }
+
+    /**
+     * Flips the board top to bottom and swaps the colors, including the side to move
+     */
+    private static String mirror(String fen) {
+        String[] fields = fen.split(" ");
+        String[] ranks = fields[0].split("/");
+        StringBuilder board = new StringBuilder();
+        for (int i = ranks.length - 1; i >= 0; i--) {
+            for (char c : ranks[i].toCharArray()) {
+                board.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+            }
+            if (i > 0) {
+                board.append('/');
+            }
+        }
+        return board + (fields[1].equals("w") ? " b" : " w");
+    }
+
+    @Test
+    void mirroredPositionsScoreTheSameForTheSideToMove() {
+        String middlegame = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+        String endgame = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+        assertEquals(evaluate(middlegame), evaluate(mirror(middlegame)));
+        assertEquals(evaluate(endgame), evaluate(mirror(endgame)));
+        assertNotEquals(0, evaluate(endgame));
+    }
+
+    @Test
+    void endgameKingWantsTheCentre() {
+        int centre = evaluate("8/8/8/3K4/8/8/8/k7 w - - 0 1");
+        int corner = evaluate("7K/8/8/8/8/8/8/k7 w - - 0 1");
+        assertTrue(centre > corner);
+    }
+
+    @Test
+    void incrementalUpdatesMatchARecount() {
+        Random random = new Random(7);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (Evaluator evaluator : new Evaluator[]{new PieceSquareEvaluator(), new MaterialEvaluator()}) {
+            Position position = Position.of(Fen.parse(Fen.STARTING_POSITION));
+            evaluator.reset(position.board());
+            for (int ply = 0; ply < 200; ply++) {
+                int count = position.generate(moves, 0);
+                if (count == 0) {
+                    break;
+                }
+                int move = moves[random.nextInt(count)];
+                Bitboard board = position.board();
+                int piece = board.pieceAt(Move.from(move));
+                int captured = position.capturedBy(move);
+                evaluator.remove(piece, Move.from(move));
+                if (captured != Bitboard.EMPTY) {
+                    evaluator.remove(captured, Move.to(move));
+                }
+                position.make(move);
+                evaluator.add(board.pieceAt(Move.to(move)), Move.to(move));
+
+                Evaluator recount = evaluator instanceof MaterialEvaluator ? new MaterialEvaluator() : new PieceSquareEvaluator();
+                recount.reset(board);
+                assertEquals(recount.evaluate(Bitboard.WHITE), evaluator.evaluate(Bitboard.WHITE));
+            }
+        }
+    }
+}
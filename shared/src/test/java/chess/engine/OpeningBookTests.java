@@ -0,0 +1,105 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.bitboard.Fen;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTests {
+    private static final String GAMES = """
+            [Event "One"]
+
+            1. e4 e5 2. Nf3 Nc6 3. Bb5 1-0
+
+            [Event "Two"]
+
+            1. e4 c5 2. Nf3 d6 0-1
+
+            [Event "Three"]
+
+            1. d4 d5 2. c4 1/2-1/2
+
+            [Opening "Sicilian Defense"]
+
+            1. e4 c5 *
+            """;
+
+    @TempDir
+    Path dir;
+
+    private OpeningBook build(int maxPly) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPly);
+        builder.addGames(new BufferedReader(new StringReader(GAMES)));
+        Path file = dir.resolve("book.bin");
+        builder.write(file);
+        return OpeningBook.open(file);
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+
+    @Test
+    void movesAreWeightedByGames() throws IOException {
+        try (OpeningBook book = build(8)) {
+            List<OpeningBook.BookMove> moves = book.moves(Fen.parse(Fen.STARTING_POSITION));
+            assertEquals(2, moves.size());
+            assertEquals(new OpeningBook.BookMove(move(2, 5, 4, 5), 3), moves.get(0));
+            assertEquals(new OpeningBook.BookMove(move(2, 4, 4, 4), 1), moves.get(1));
+        }
+    }
+
+    @Test
+    void namesTheEndOfNamedLines() throws IOException, InvalidMoveException {
+        try (OpeningBook book = build(8)) {
+            ChessGame game = new ChessGame();
+            game.makeMove(move(2, 5, 4, 5));
+            assertNull(book.name(game));
+            game.makeMove(move(7, 3, 5, 3));
+            assertEquals("Sicilian Defense", book.name(game));
+            assertEquals(List.of(new OpeningBook.BookMove(move(1, 7, 3, 6), 1)), book.moves(game));
+        }
+    }
+
+    @Test
+    void booksWithOlderKeysAreRejected() throws IOException {
+        build(8).close();
+        Path file = dir.resolve("book.bin");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[3] = '1';
+        Files.write(file, bytes);
+        IOException ex = assertThrows(IOException.class, () -> OpeningBook.open(file));
+        assertTrue(ex.getMessage().contains("rebuild"));
+    }
+
+    @Test
+    void unknownAndTooDeepPositionsHaveNoMoves() throws IOException {
+        try (OpeningBook book = build(2)) {
+            assertTrue(book.moves(Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1")).isEmpty());
+            ChessGame afterTwo = Fen.parse("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2");
+            assertTrue(book.moves(afterTwo).isEmpty());
+            assertNull(book.pick(afterTwo, new Random(1)));
+            assertNotNull(book.pick(Fen.parse(Fen.STARTING_POSITION), new Random(1)));
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotBooks() throws IOException {
+        Path file = dir.resolve("junk.bin");
+        Files.writeString(file, "definitely not a book");
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+}
@@ -0,0 +1,100 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.bitboard.Fen;
+import chess.bitboard.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTests {
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+
+    @Test
+    void findsBackRankMate() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        assertEquals(move(1, 1, 8, 1), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    void checkmatedSideHasNoBestMove() {
+        SearchResult result = new Search().search(Fen.parse("6k1/5ppp/8/8/8/8/5PPP/r5K1 w - - 0 1"), SearchLimits.depth(2));
+        assertNull(result.bestMove());
+        assertEquals(-Search.MATE, result.score());
+        assertTrue(result.isMate());
+    }
+
+    @Test
+    void winsAHangingQueen() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        assertEquals(move(2, 4, 5, 4), result.bestMove());
+        assertTrue(result.score() > 300);
+        assertEquals(result.bestMove(), result.principalVariation().getFirst());
+    }
+
+    @Test
+    void noMovesMeansNoBestMove() {
+        SearchResult stalemate = new Search().search(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        assertNull(stalemate.bestMove());
+        assertEquals(0, stalemate.score());
+    }
+
+    @Test
+    void respectsNodeLimit() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        SearchResult result = new Search().search(game, SearchLimits.nodes(5000));
+        assertNotNull(result.bestMove());
+        assertTrue(result.nodes() <= 5000);
+    }
+
+    @Test
+    void respectsTimeLimitAndLeavesGameAlone() {
+        ChessGame game = Fen.parse("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        long key = game.getPositionKey();
+        long start = System.nanoTime();
+        SearchResult result = new Search().search(game, SearchLimits.millis(200));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() >= 1);
+        assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + "ms");
+        assertEquals(key, game.getPositionKey());
+        assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+    }
+
+    @Test
+    void flagRaisedBeforeTheSearchStopsIt() {
+        AtomicBoolean stop = new AtomicBoolean(true);
+        SearchResult result = new Search().search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.depth(Search.MAX_DEPTH), stop);
+        assertEquals(0, result.depth());
+        assertNotNull(result.bestMove());
+        assertTrue(result.nodes() < 100);
+    }
+
+    @Test
+    void evaluatorStaysInStepWithTheSearch() {
+        ChessGame game = Fen.parse("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1");
+        Position[] searched = new Position[1];
+        Evaluator checking = new PieceSquareEvaluator() {
+            @Override
+            public int evaluate(int side) {
+                PieceSquareEvaluator recount = new PieceSquareEvaluator();
+                recount.reset(searched[0].board());
+                assertEquals(recount.evaluate(side), super.evaluate(side));
+                return super.evaluate(side);
+            }
+        };
+        searched[0] = Position.of(game);
+        new Search(new TranspositionTable(1), checking).search(searched[0], SearchLimits.depth(4));
+    }
+}
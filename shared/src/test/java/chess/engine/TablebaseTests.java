@@ -0,0 +1,187 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.bitboard.Attacks;
+import chess.bitboard.Bitboard;
+import chess.bitboard.Fen;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.Position;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseTests {
+    @TempDir
+    static Path dir;
+
+    private static TablebaseGenerator generator;
+    private static EndgameTablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        generator = new TablebaseGenerator();
+        for (int type : TablebaseGenerator.TYPES) {
+            generator.generate(type);
+        }
+        Path file = dir.resolve("endgames.bin");
+        generator.write(file);
+        tablebase = EndgameTablebase.open(file);
+    }
+
+    @AfterAll
+    static void close() throws IOException {
+        tablebase.close();
+    }
+
+    private static Tablebase.Probe probe(String fen) {
+        Position position = Position.of(Fen.parse(fen));
+        return tablebase.probe(position.board(), position.side());
+    }
+
+    @Test
+    void knowsMatesAndDraws() {
+        assertEquals(new Tablebase.Probe(Tablebase.Result.LOSS, 0), probe("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1"));
+        assertEquals(new Tablebase.Probe(Tablebase.Result.WIN, 1), probe("k7/8/1K6/8/8/8/7Q/8 w - - 0 1"));
+        assertEquals(Tablebase.Probe.DRAW, probe("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1"));
+        assertEquals(Tablebase.Probe.DRAW, probe("8/8/8/8/8/2k5/1Q6/7K b - - 0 1"));
+        assertEquals(Tablebase.Probe.DRAW, probe("8/8/8/8/8/2k5/1N6/7K w - - 0 1"));
+        assertEquals(Tablebase.Probe.DRAW, probe("8/8/8/8/8/2k5/8/7K w - - 0 1"));
+        assertNull(probe("8/8/8/8/8/2k5/1Q6/R6K w - - 0 1"));
+    }
+
+    @Test
+    void knowsPawnEndings() {
+        // a king in front of its pawn on the sixth rank wins whoever is to move
+        assertEquals(Tablebase.Result.WIN, probe("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1").result());
+        assertEquals(Tablebase.Result.LOSS, probe("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1").result());
+        // a rook pawn cannot get the defending king out of the corner
+        assertEquals(Tablebase.Probe.DRAW, probe("k7/8/K7/P7/8/8/8/8 w - - 0 1"));
+        assertEquals(Tablebase.Probe.DRAW, probe("4k3/4P3/4K3/8/8/8/8/8 b - - 0 1"));
+        // the same with the colors swapped
+        assertEquals(Tablebase.Result.WIN, probe("8/8/8/8/4p3/4k3/8/4K3 b - - 0 1").result());
+        assertEquals(Tablebase.Probe.DRAW, probe("8/8/8/8/p7/k7/8/K7 b - - 0 1"));
+    }
+
+    @Test
+    void longestMatesAreTheKnownOnes() {
+        assertEquals(19, longestWin(Bitboard.QUEEN));
+        assertEquals(31, longestWin(Bitboard.ROOK));
+    }
+
+    private static int longestWin(int type) {
+        byte[] values = generator.generate(type);
+        int longest = 0;
+        for (int index = 0; index < EndgameTablebase.index(Bitboard.BLACK, 0, 0, 0); index++) {
+            longest = Math.max(longest, (values[index] & 0xFF) - 1);
+        }
+        return longest;
+    }
+
+    @Test
+    void agreesWithTheMoveGenerator() {
+        for (int type : TablebaseGenerator.TYPES) {
+            for (int index = 0; index < EndgameTablebase.ENTRIES; index += 61) {
+                int side = index >>> 18;
+                int wk = index >>> 12 & 63;
+                int bk = index >>> 6 & 63;
+                int sq = index & 63;
+                Bitboard board = new Bitboard();
+                if (wk == bk || wk == sq || bk == sq) {
+                    continue;
+                }
+                board.put(wk, Bitboard.piece(Bitboard.WHITE, Bitboard.KING));
+                board.put(bk, Bitboard.piece(Bitboard.BLACK, Bitboard.KING));
+                board.put(sq, Bitboard.piece(Bitboard.WHITE, type));
+                if (!legal(board, side, type, sq)) {
+                    continue;
+                }
+                checkAgainstChildren(new Position(board, side), "table " + type + " entry " + index);
+            }
+        }
+    }
+
+    private static boolean legal(Bitboard board, int side, int type, int sq) {
+        if (type == Bitboard.PAWN && (sq < 8 || sq >= 56)) {
+            return false;
+        }
+        // kings side by side would both be in check
+        return (Attacks.king(board.kingSquare(Bitboard.WHITE)) & (1L << board.kingSquare(Bitboard.BLACK))) == 0
+                && !new MoveGenerator(board, side ^ 1).inCheck();
+    }
+
+    private static void checkAgainstChildren(Position position, String where) {
+        Tablebase.Probe probe = tablebase.probe(position.board(), position.side());
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = position.generate(moves, 0);
+        int fastestWin = Integer.MAX_VALUE;
+        int slowestLoss = -1;
+        boolean allLost = true;
+        for (int i = 0; i < count; i++) {
+            position.make(moves[i]);
+            Tablebase.Probe child = tablebase.probe(position.board(), position.side());
+            position.unmake();
+            if (child.result() == Tablebase.Result.LOSS) {
+                fastestWin = Math.min(fastestWin, child.distance() + 1);
+            }
+            if (child.result() == Tablebase.Result.WIN) {
+                slowestLoss = Math.max(slowestLoss, child.distance() + 1);
+            } else {
+                allLost = false;
+            }
+        }
+        if (count == 0) {
+            Tablebase.Result expected = position.inCheck() ? Tablebase.Result.LOSS : Tablebase.Result.DRAW;
+            assertEquals(new Tablebase.Probe(expected, 0), probe, where);
+        } else if (fastestWin != Integer.MAX_VALUE) {
+            assertEquals(new Tablebase.Probe(Tablebase.Result.WIN, fastestWin), probe, where);
+        } else if (allLost) {
+            assertEquals(new Tablebase.Probe(Tablebase.Result.LOSS, slowestLoss), probe, where);
+        } else {
+            assertEquals(Tablebase.Probe.DRAW, probe, where);
+        }
+    }
+
+    @Test
+    void gameStateCallsDeadEndingsDrawn() {
+        ChessGame.setTablebase(tablebase);
+        try {
+            ChessGame drawn = Fen.parse("k7/8/K7/P7/8/8/8/8 w - - 0 1");
+            assertEquals(ChessGame.GameState.TABLEBASE_DRAW, drawn.gameState(drawn, ChessGame.TeamColor.WHITE));
+            ChessGame won = Fen.parse("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1");
+            assertEquals(ChessGame.GameState.NORMAL, won.gameState(won, ChessGame.TeamColor.BLACK));
+            ChessGame mated = Fen.parse("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1");
+            assertEquals(ChessGame.GameState.CHECKMATE, mated.gameState(mated, ChessGame.TeamColor.BLACK));
+        } finally {
+            ChessGame.setTablebase(null);
+        }
+        ChessGame drawn = Fen.parse("k7/8/K7/P7/8/8/8/8 w - - 0 1");
+        assertEquals(ChessGame.GameState.NORMAL, drawn.gameState(drawn, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void searchPlaysTheShortestMate() {
+        Search search = new Search();
+        search.setTablebase(tablebase);
+        SearchResult result = search.search(Fen.parse("8/8/8/4k3/8/8/8/R3K3 w - - 0 1"), SearchLimits.depth(4));
+        Tablebase.Probe probe = probe("8/8/8/4k3/8/8/8/R3K3 w - - 0 1");
+        assertTrue(result.isMate());
+        assertEquals((probe.distance() + 1) / 2, result.mateIn());
+        assertEquals(Search.MATE - probe.distance(), result.score());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotTablebases() throws IOException {
+        Path file = dir.resolve("junk.bin");
+        Files.writeString(file, "definitely not a tablebase");
+        assertThrows(IOException.class, () -> EndgameTablebase.open(file));
+        assertTrue(tablebase.hasTable(Bitboard.PAWN));
+        assertFalse(tablebase.hasTable(Bitboard.BISHOP));
+    }
+}
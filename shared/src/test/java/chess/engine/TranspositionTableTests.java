@@ -0,0 +1,77 @@
+package chess.engine;
+
+import chess.bitboard.Fen;
+import chess.bitboard.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTests {
+
+    @Test
+    void storedEntriesReadBack() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x9E3779B97F4A7C15L;
+        int move = Move.of(12, 28, Move.DOUBLE_PUSH);
+        table.store(key, move, -1234, 7, TranspositionTable.LOWER);
+
+        long entry = table.probe(key);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(Move.key(move), TranspositionTable.move(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+    }
+
+    @Test
+    void otherKeysInTheSameSlotMiss() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+        table.store(key, Move.NONE, 0, 1, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.MISS, table.probe(key + table.capacity()));
+        assertEquals(TranspositionTable.MISS, table.probe(7L));
+    }
+
+    @Test
+    void deeperEntriesWinUntilTheNextSearch() {
+        TranspositionTable table = new TranspositionTable(1);
+        long deep = 5L;
+        long shallow = deep + table.capacity();
+        table.store(deep, Move.of(1, 2), 10, 9, TranspositionTable.EXACT);
+        table.store(shallow, Move.of(3, 4), 20, 2, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.MISS, table.probe(shallow));
+        assertEquals(9, TranspositionTable.depth(table.probe(deep)));
+
+        table.newSearch();
+        table.store(shallow, Move.of(3, 4), 20, 2, TranspositionTable.EXACT);
+        assertEquals(20, TranspositionTable.score(table.probe(shallow)));
+        assertEquals(TranspositionTable.MISS, table.probe(deep));
+    }
+
+    @Test
+    void sizeFollowsTheMemoryBudget() {
+        assertEquals(65536, new TranspositionTable(1).capacity());
+        assertEquals(1 << 20, new TranspositionTable(16).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void sharedTableSurvivesConcurrentSearches() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        Thread[] threads = new Thread[4];
+        SearchResult[] results = new SearchResult[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> results[index] = new Search(table)
+                    .search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.depth(5)));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (SearchResult result : results) {
+            assertNotNull(result.bestMove());
+            assertEquals(5, result.depth());
+        }
+    }
+}